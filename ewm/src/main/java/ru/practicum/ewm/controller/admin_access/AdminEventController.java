@@ -1,6 +1,7 @@
 package ru.practicum.ewm.controller.admin_access;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -13,7 +14,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.ewm.dto.CursorPage;
 import ru.practicum.ewm.dto.event.EventFullDto;
+import ru.practicum.ewm.dto.request.EventBulkStateUpdateRequest;
+import ru.practicum.ewm.dto.request.EventStateUpdateResult;
 import ru.practicum.ewm.dto.request.UpdateEventAdminRequest;
 import ru.practicum.ewm.model.EventStatus;
 import ru.practicum.ewm.service.EventService;
@@ -24,6 +28,7 @@ import java.util.List;
 
 import static ru.practicum.ewm.utils.Constants.DATE_TIME_FORMAT;
 import static ru.practicum.ewm.utils.Constants.MAIN_SERVICE;
+import static ru.practicum.ewm.utils.Constants.NEXT_CURSOR_HEADER;
 
 
 @RestController
@@ -45,10 +50,25 @@ public class AdminEventController {
             @RequestParam(required = false) @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime rangeEnd,
             @RequestParam(defaultValue = "0") int from,
             @RequestParam(defaultValue = "10") int size,
-            HttpServletRequest request
+            @RequestParam(required = false) String cursor,
+            HttpServletRequest request,
+            HttpServletResponse response
     ) {
         statService.sendStat(MAIN_SERVICE, request);
-        return eventService.adminFindAll(users, states, categories, rangeStart, rangeEnd, from, size);
+        CursorPage<EventFullDto> page = eventService.adminFindAll(
+                users, states, categories, rangeStart, rangeEnd, from, size, cursor);
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getContent();
+    }
+
+    @PatchMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public List<EventStateUpdateResult> bulkUpdate(@Valid @RequestBody EventBulkStateUpdateRequest dto,
+                                                   HttpServletRequest request) {
+        statService.sendStat(MAIN_SERVICE, request);
+        return eventService.adminBulkUpdate(dto);
     }
 
     @PatchMapping("/{eventId}")
@@ -1,6 +1,7 @@
 package ru.practicum.ewm.controller.admin_access;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.ewm.dto.CursorPage;
 import ru.practicum.ewm.dto.user.NewUserRequest;
 import ru.practicum.ewm.dto.user.UserDto;
 import ru.practicum.ewm.model.AllowedSubscriberGroup;
@@ -23,6 +25,7 @@ import ru.practicum.ewm.service.UserService;
 import java.util.List;
 
 import static ru.practicum.ewm.utils.Constants.MAIN_SERVICE;
+import static ru.practicum.ewm.utils.Constants.NEXT_CURSOR_HEADER;
 
 @RestController
 @RequestMapping(path = "/admin/users")
@@ -38,9 +41,15 @@ public class AdminUserController {
     public List<UserDto> findAll(@RequestParam(required = false) List<Integer> ids,
                                  @RequestParam(defaultValue = "0") int from,
                                  @RequestParam(defaultValue = "10") int size,
-                                 HttpServletRequest request) {
+                                 @RequestParam(required = false) String cursor,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) {
         statService.sendStat(MAIN_SERVICE, request);
-        return userService.findAll(ids, from, size);
+        CursorPage<UserDto> page = userService.findAll(ids, from, size, cursor);
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getContent();
     }
 
     @GetMapping("/{id}")
@@ -1,6 +1,7 @@
 package ru.practicum.ewm.controller.private_access;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.ewm.dto.CursorPage;
 import ru.practicum.ewm.dto.event.EventFullDto;
 import ru.practicum.ewm.dto.event.EventShortDto;
 import ru.practicum.ewm.dto.event.NewEventDto;
@@ -27,6 +29,7 @@ import ru.practicum.ewm.service.StatisticsService;
 import java.util.List;
 
 import static ru.practicum.ewm.utils.Constants.MAIN_SERVICE;
+import static ru.practicum.ewm.utils.Constants.NEXT_CURSOR_HEADER;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -44,9 +47,15 @@ public class PrivateEventController {
     public List<EventShortDto> findByInitiator(@PathVariable int userId,
                                                @RequestParam(defaultValue = "0") int from,
                                                @RequestParam(defaultValue = "10") int size,
-                                               HttpServletRequest request) {
+                                               @RequestParam(required = false) String cursor,
+                                               HttpServletRequest request,
+                                               HttpServletResponse response) {
         statService.sendStat(MAIN_SERVICE, request);
-        return eventService.findByInitiator(userId, from, size);
+        CursorPage<EventShortDto> page = eventService.findByInitiator(userId, from, size, cursor);
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getContent();
     }
 
     @PostMapping("/{userId}/events")
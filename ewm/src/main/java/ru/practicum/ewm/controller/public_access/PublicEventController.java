@@ -1,6 +1,7 @@
 package ru.practicum.ewm.controller.public_access;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -10,30 +11,39 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.ewm.dto.CursorPage;
+import ru.practicum.ewm.dto.event.EventClusterDto;
 import ru.practicum.ewm.dto.event.EventFullDto;
 import ru.practicum.ewm.dto.event.EventShortDto;
+import ru.practicum.ewm.dto.event.EventSuggestionDto;
+import ru.practicum.ewm.service.EventClusterService;
 import ru.practicum.ewm.service.EventService;
+import ru.practicum.ewm.service.EventSuggestService;
+import ru.practicum.ewm.service.EventViewService;
 import ru.practicum.ewm.service.StatisticsService;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Collections;
 import java.util.List;
 
 import static ru.practicum.ewm.utils.Constants.DATE_TIME_FORMAT;
 import static ru.practicum.ewm.utils.Constants.MAIN_SERVICE;
+import static ru.practicum.ewm.utils.Constants.NEXT_CURSOR_HEADER;
 
 @RestController
 @RequestMapping(path = "/events")
 @RequiredArgsConstructor
 public class PublicEventController {
 
-    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
-
     private final EventService eventService;
 
     private final StatisticsService statService;
 
+    private final EventViewService viewService;
+
+    private final EventSuggestService suggestService;
+
+    private final EventClusterService clusterService;
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public List<EventShortDto> get(
@@ -46,10 +56,41 @@ public class PublicEventController {
             @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int from,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radius,
+            @RequestParam(required = false) List<Double> bbox,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        statService.sendStat(MAIN_SERVICE, request);
+        CursorPage<EventShortDto> page = eventService.findFilteredEvents(
+                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size, cursor,
+                lat, lon, radius, bbox);
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getContent();
+    }
+
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public List<EventSuggestionDto> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+        statService.sendStat(MAIN_SERVICE, request);
+        return suggestService.suggest(prefix, limit);
+    }
+
+    @GetMapping("/clusters")
+    @ResponseStatus(HttpStatus.OK)
+    public List<EventClusterDto> getClusters(
+            @RequestParam List<Double> bbox,
+            @RequestParam int zoom,
             HttpServletRequest request) {
         statService.sendStat(MAIN_SERVICE, request);
-        return eventService.findFilteredEvents(
-                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
+        return clusterService.getClusters(bbox, zoom);
     }
 
     @GetMapping("/{id}")
@@ -57,11 +98,7 @@ public class PublicEventController {
     public EventFullDto getEventById(@PathVariable int id, HttpServletRequest request) {
         EventFullDto event = eventService.findPublishedEventById(id);
         statService.sendStat(MAIN_SERVICE, request);
-        int views = statService.getStats(
-                event.getCreatedOn().format(dateFormatter),
-                LocalDateTime.now().format(dateFormatter),
-                Collections.singletonList(request.getRequestURI()), true).size();
-        eventService.updateViews(id, views);
+        event.setViews(viewService.getViewsAsync(id, event.getCreatedOn(), event.getViews()));
         return event;
     }
 
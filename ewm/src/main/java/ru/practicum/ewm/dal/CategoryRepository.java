@@ -1,5 +1,7 @@
 package ru.practicum.ewm.dal;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewm.model.Category;
@@ -12,8 +14,12 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
     List<Category> findAll();
 
+    Slice<Category> findAllBy(Pageable pageable);
+
     Optional<Category> findById(int id);
 
+    boolean existsByName(String name);
+
     Category save(Category category);
 
     void deleteById(int id);
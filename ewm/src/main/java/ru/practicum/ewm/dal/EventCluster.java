@@ -0,0 +1,4 @@
+package ru.practicum.ewm.dal;
+
+public record EventCluster(long cellX, long cellY, long count, double lat, double lon) {
+}
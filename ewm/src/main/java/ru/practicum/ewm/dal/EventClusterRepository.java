@@ -0,0 +1,29 @@
+package ru.practicum.ewm.dal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class EventClusterRepository {
+
+    private static final String FIND_CLUSTERS = """
+            SELECT floor((lon + 180) / ?) AS cell_x, floor((lat + 90) / ?) AS cell_y,
+                   count(*) AS events, avg(lat) AS lat, avg(lon) AS lon
+            FROM events
+            WHERE state = 'PUBLISHED' AND point(lon, lat) <@ box(point(?, ?), point(?, ?))
+            GROUP BY cell_x, cell_y
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<EventCluster> findClusters(double minLon, double minLat, double maxLon, double maxLat, double cellSize) {
+        return jdbcTemplate.query(FIND_CLUSTERS,
+                (rs, rowNum) -> new EventCluster(rs.getLong("cell_x"), rs.getLong("cell_y"),
+                        rs.getLong("events"), rs.getDouble("lat"), rs.getDouble("lon")),
+                cellSize, cellSize, minLon, minLat, maxLon, maxLat);
+    }
+}
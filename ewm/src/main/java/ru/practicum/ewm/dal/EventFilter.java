@@ -0,0 +1,47 @@
+package ru.practicum.ewm.dal;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.ewm.model.EventSort;
+import ru.practicum.ewm.model.EventStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class EventFilter {
+
+    private List<Integer> users;
+
+    private List<EventStatus> states;
+
+    private List<Integer> categories;
+
+    private String text;
+
+    private Boolean paid;
+
+    private LocalDateTime rangeStart;
+
+    private LocalDateTime rangeEnd;
+
+    private boolean onlyAvailable;
+
+    private Double lat;
+
+    private Double lon;
+
+    private Double radiusKm;
+
+    private List<Double> bbox;
+
+    @Builder.Default
+    private EventSort sort = EventSort.ID;
+
+    private Integer cursorId;
+
+    private LocalDateTime cursorDate;
+
+    private Integer cursorViews;
+}
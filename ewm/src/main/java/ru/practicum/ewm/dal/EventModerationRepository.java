@@ -0,0 +1,55 @@
+package ru.practicum.ewm.dal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.practicum.ewm.model.EventStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class EventModerationRepository {
+
+    private static final String PUBLISH = """
+            UPDATE events SET state = 'PUBLISHED', published_on = ?
+            WHERE id = ANY(CAST(? AS int[])) AND state = 'PENDING' AND event_date >= ?
+            RETURNING id, state, event_date, title, lat, lon
+            """;
+
+    private static final String REJECT = """
+            UPDATE events SET state = 'CANCELED'
+            WHERE id = ANY(CAST(? AS int[])) AND state <> 'PUBLISHED'
+            RETURNING id, state, event_date, title, lat, lon
+            """;
+
+    private static final String FIND_BY_IDS = """
+            SELECT id, state, event_date, title, lat, lon
+            FROM events
+            WHERE id = ANY(CAST(? AS int[]))
+            """;
+
+    private static final RowMapper<EventModerationRow> ROW_MAPPER = (rs, rowNum) -> new EventModerationRow(
+            rs.getInt("id"),
+            EventStatus.valueOf(rs.getString("state")),
+            rs.getObject("event_date", LocalDateTime.class),
+            rs.getString("title"),
+            rs.getDouble("lat"),
+            rs.getDouble("lon"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<EventModerationRow> publish(List<Integer> ids, LocalDateTime publishedOn, LocalDateTime minEventDate) {
+        return jdbcTemplate.query(PUBLISH, ROW_MAPPER, publishedOn, ids.toArray(new Integer[0]), minEventDate);
+    }
+
+    public List<EventModerationRow> reject(List<Integer> ids) {
+        return jdbcTemplate.query(REJECT, ROW_MAPPER, (Object) ids.toArray(new Integer[0]));
+    }
+
+    public List<EventModerationRow> findByIds(List<Integer> ids) {
+        return jdbcTemplate.query(FIND_BY_IDS, ROW_MAPPER, (Object) ids.toArray(new Integer[0]));
+    }
+}
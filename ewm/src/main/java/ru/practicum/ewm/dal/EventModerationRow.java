@@ -0,0 +1,8 @@
+package ru.practicum.ewm.dal;
+
+import ru.practicum.ewm.model.EventStatus;
+
+import java.time.LocalDateTime;
+
+public record EventModerationRow(int id, EventStatus state, LocalDateTime eventDate, String title, double lat, double lon) {
+}
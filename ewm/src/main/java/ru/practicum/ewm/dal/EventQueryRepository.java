@@ -0,0 +1,9 @@
+package ru.practicum.ewm.dal;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface EventQueryRepository {
+
+    Slice<EventRow> findByFilter(EventFilter filter, Pageable pageable);
+}
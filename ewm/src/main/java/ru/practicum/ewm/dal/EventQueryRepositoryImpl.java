@@ -0,0 +1,193 @@
+package ru.practicum.ewm.dal;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.ewm.model.Category;
+import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.model.EventSearch;
+import ru.practicum.ewm.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class EventQueryRepositoryImpl implements EventQueryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<EventRow> findByFilter(EventFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventRow> query = cb.createQuery(EventRow.class);
+        Root<Event> event = query.from(Event.class);
+        Join<Event, Category> category = event.join("category");
+        Join<Event, User> initiator = event.join("initiator");
+        // a constructor projection reads the page in one statement without managed entities or eager loads
+        query.select(cb.construct(EventRow.class,
+                event.get("id"),
+                event.get("annotation"),
+                category.get("id"),
+                category.get("name"),
+                event.get("confirmedRequests"),
+                event.get("createdOn"),
+                event.get("description"),
+                event.get("eventDate"),
+                initiator.get("id"),
+                initiator.get("name"),
+                event.get("location").get("lat"),
+                event.get("location").get("lon"),
+                event.get("paid"),
+                event.get("participantLimit"),
+                event.get("publishedOn"),
+                event.get("requestModeration"),
+                event.get("state"),
+                event.get("title"),
+                event.get("views")));
+
+        Path<Integer> id = event.get("id");
+        Path<LocalDateTime> eventDate = event.get("eventDate");
+        Path<Integer> views = event.get("views");
+
+        List<Predicate> predicates = new ArrayList<>();
+        // values are bound as parameters so that every filter combination maps to one reusable SQL string
+        List<Consumer<TypedQuery<?>>> bindings = new ArrayList<>();
+        Expression<Float> rank = null;
+        if (filter.getText() != null) {
+            JpaEntityJoin<EventSearch> search = ((JpaRoot<Event>) event).join(EventSearch.class);
+            search.on(cb.equal(search.get("id"), id));
+            Expression<String> text = parameter(cb, bindings, String.class, filter.getText());
+            predicates.add(cb.isTrue(cb.function("fts_match", Boolean.class, search.get("searchVector"), text)));
+            rank = cb.function("fts_rank", Float.class, search.get("searchVector"), text);
+        }
+        if (filter.getUsers() != null) {
+            predicates.add(event.get("initiator").get("id").in(filter.getUsers()));
+        }
+        if (filter.getStates() != null) {
+            predicates.add(event.get("state").in(filter.getStates()));
+        }
+        if (filter.getCategories() != null) {
+            predicates.add(event.get("category").get("id").in(filter.getCategories()));
+        }
+        if (filter.getPaid() != null) {
+            predicates.add(cb.equal(event.get("paid"), filter.getPaid()));
+        }
+        if (filter.getRangeStart() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(eventDate, filter.getRangeStart()));
+        }
+        if (filter.getRangeEnd() != null) {
+            predicates.add(cb.lessThanOrEqualTo(eventDate, filter.getRangeEnd()));
+        }
+        if (filter.isOnlyAvailable()) {
+            Path<Integer> participantLimit = event.get("participantLimit");
+            predicates.add(cb.or(cb.equal(participantLimit, 0),
+                    cb.lessThan(event.get("confirmedRequests"), participantLimit)));
+        }
+        Path<Double> lat = event.get("location").get("lat");
+        Path<Double> lon = event.get("location").get("lon");
+        if (filter.getBbox() != null) {
+            List<Double> bbox = filter.getBbox();
+            predicates.add(withinBox(cb, bindings, lat, lon, bbox.get(0), bbox.get(1), bbox.get(2), bbox.get(3)));
+        }
+        Expression<Double> distance = null;
+        if (filter.getLat() != null && filter.getLon() != null) {
+            distance = cb.function("geo_distance_km", Double.class,
+                    parameter(cb, bindings, Double.class, filter.getLat()),
+                    parameter(cb, bindings, Double.class, filter.getLon()), lat, lon);
+        }
+        if (filter.getRadiusKm() != null && distance != null) {
+            // the enclosing box is served by the GiST index, the exact great-circle check then runs on few rows
+            predicates.add(radiusBox(cb, bindings, lat, lon, filter.getLat(), filter.getLon(), filter.getRadiusKm()));
+            predicates.add(cb.lessThanOrEqualTo(distance, filter.getRadiusKm()));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        Integer cursorId = filter.getCursorId();
+        switch (filter.getSort()) {
+            case EVENT_DATE -> {
+                if (cursorId != null) {
+                    predicates.add(cb.or(cb.greaterThan(eventDate, filter.getCursorDate()),
+                            cb.and(cb.equal(eventDate, filter.getCursorDate()), cb.greaterThan(id, cursorId))));
+                }
+                orders.add(cb.asc(eventDate));
+            }
+            case VIEWS -> {
+                if (cursorId != null) {
+                    predicates.add(cb.or(cb.lessThan(views, filter.getCursorViews()),
+                            cb.and(cb.equal(views, filter.getCursorViews()), cb.greaterThan(id, cursorId))));
+                }
+                orders.add(cb.desc(views));
+            }
+            case RELEVANCE -> {
+                if (rank != null) {
+                    orders.add(cb.desc(rank));
+                }
+            }
+            case DISTANCE -> {
+                if (distance != null) {
+                    orders.add(cb.asc(distance));
+                }
+            }
+            default -> {
+                if (cursorId != null) {
+                    predicates.add(cb.greaterThan(id, cursorId));
+                }
+            }
+        }
+        orders.add(cb.asc(id));
+
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+
+        TypedQuery<EventRow> typedQuery = entityManager.createQuery(query);
+        bindings.forEach(binding -> binding.accept(typedQuery));
+        List<EventRow> content = typedQuery
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private Predicate radiusBox(CriteriaBuilder cb, List<Consumer<TypedQuery<?>>> bindings,
+                                Path<Double> lat, Path<Double> lon, double centerLat, double centerLon, double radiusKm) {
+        Predicate[] boxes = GeoBox.around(centerLat, centerLon, radiusKm).stream()
+                .map(box -> withinBox(cb, bindings, lat, lon, box.minLon(), box.minLat(), box.maxLon(), box.maxLat()))
+                .toArray(Predicate[]::new);
+        return boxes.length == 1 ? boxes[0] : cb.or(boxes);
+    }
+
+    private Predicate withinBox(CriteriaBuilder cb, List<Consumer<TypedQuery<?>>> bindings,
+                                Path<Double> lat, Path<Double> lon,
+                                double minLon, double minLat, double maxLon, double maxLat) {
+        return cb.isTrue(cb.function("geo_within_box", Boolean.class, lon, lat,
+                parameter(cb, bindings, Double.class, minLon), parameter(cb, bindings, Double.class, minLat),
+                parameter(cb, bindings, Double.class, maxLon), parameter(cb, bindings, Double.class, maxLat)));
+    }
+
+    private <T> ParameterExpression<T> parameter(CriteriaBuilder cb, List<Consumer<TypedQuery<?>>> bindings,
+                                                 Class<T> type, T value) {
+        ParameterExpression<T> parameter = cb.parameter(type);
+        bindings.add(query -> query.setParameter(parameter, value));
+        return parameter;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.ewm.dal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.ewm.model.EventStatus;
+import ru.practicum.ewm.model.EventSummary;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class EventRow implements EventSummary {
+
+    private Integer id;
+
+    private String annotation;
+
+    private Integer categoryId;
+
+    private String categoryName;
+
+    private int confirmedRequests;
+
+    private LocalDateTime createdOn;
+
+    private String description;
+
+    private LocalDateTime eventDate;
+
+    private Integer initiatorId;
+
+    private String initiatorName;
+
+    private double lat;
+
+    private double lon;
+
+    private Boolean paid;
+
+    private Integer participantLimit;
+
+    private LocalDateTime publishedOn;
+
+    private boolean requestModeration;
+
+    private EventStatus state;
+
+    private String title;
+
+    private int views;
+}
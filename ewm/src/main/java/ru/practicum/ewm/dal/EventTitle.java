@@ -0,0 +1,8 @@
+package ru.practicum.ewm.dal;
+
+public interface EventTitle {
+
+    Integer getId();
+
+    String getTitle();
+}
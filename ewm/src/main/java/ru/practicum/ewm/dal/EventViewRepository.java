@@ -0,0 +1,24 @@
+package ru.practicum.ewm.dal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class EventViewRepository {
+
+    private static final String UPDATE_VIEWS = "UPDATE events SET views = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void updateViews(Map<Integer, Integer> views) {
+        List<Object[]> rows = new ArrayList<>(views.size());
+        views.forEach((eventId, count) -> rows.add(new Object[]{count, eventId}));
+        jdbcTemplate.batchUpdate(UPDATE_VIEWS, rows);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.ewm.dal;
+
+import java.util.List;
+
+public record GeoBox(double minLon, double minLat, double maxLon, double maxLat) {
+
+    // the sphere of earth_distance_km in schema.sql, so the boxes never cut off points the exact check accepts
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    public static List<GeoBox> around(double lat, double lon, double radiusKm) {
+        double angle = radiusKm / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angle);
+        double minLat = lat - latDelta;
+        double maxLat = lat + latDelta;
+        // a circle around a pole reaches every longitude
+        if (minLat <= -90 || maxLat >= 90) {
+            return List.of(new GeoBox(-180, Math.max(-90, minLat), 180, Math.min(90, maxLat)));
+        }
+        // the widest longitude reach of the circle is at the tangent points, not on the centre's parallel
+        double lonDelta = Math.toDegrees(Math.asin(Math.sin(angle) / Math.cos(Math.toRadians(lat))));
+        double minLon = lon - lonDelta;
+        double maxLon = lon + lonDelta;
+        // a box crossing the antimeridian is split into its parts on either side of it
+        if (minLon < -180) {
+            return List.of(new GeoBox(minLon + 360, minLat, 180, maxLat), new GeoBox(-180, minLat, maxLon, maxLat));
+        }
+        if (maxLon > 180) {
+            return List.of(new GeoBox(minLon, minLat, 180, maxLat), new GeoBox(-180, minLat, maxLon - 360, maxLat));
+        }
+        return List.of(new GeoBox(minLon, minLat, maxLon, maxLat));
+    }
+}
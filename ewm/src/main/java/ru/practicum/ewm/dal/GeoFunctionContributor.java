@@ -0,0 +1,21 @@
+package ru.practicum.ewm.dal;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+public class GeoFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        // must render the same point(lon, lat) expression as idx_events_location for the GiST index to apply
+        functionContributions.getFunctionRegistry().registerPattern("geo_within_box",
+                "(point(?1, ?2) <@ box(point(?3, ?4), point(?5, ?6)))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern("geo_distance_km",
+                "earth_distance_km(?1, ?2, ?3, ?4)",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -1,7 +1,7 @@
 package ru.practicum.ewm.dal;
 
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -15,8 +15,8 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
 
-    @Query("SELECT e FROM User e WHERE (:ids IS NULL OR e.id IN :ids)")
-    Page<User> findAll(List<Integer> ids, Pageable pageable);
+    @Query("SELECT e FROM User e WHERE (:ids IS NULL OR e.id IN :ids) AND e.id > :afterId ORDER BY e.id")
+    Slice<User> findAll(List<Integer> ids, int afterId, Pageable pageable);
 
     Optional<User> findById(int id);
 
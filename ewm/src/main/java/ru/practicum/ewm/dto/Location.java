@@ -1,9 +1,13 @@
 package ru.practicum.ewm.dto;
 
+import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@Embeddable
+@NoArgsConstructor
 @AllArgsConstructor
 public class Location {
 
@@ -11,4 +15,4 @@ public class Location {
 
     private double lon;
 
-}
\ No newline at end of file
+}
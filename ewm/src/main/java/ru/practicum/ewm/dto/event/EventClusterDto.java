@@ -0,0 +1,15 @@
+package ru.practicum.ewm.dto.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EventClusterDto {
+
+    private double lat;
+
+    private double lon;
+
+    private long count;
+}
@@ -10,7 +10,7 @@ import ru.practicum.ewm.dto.user.UserShortDto;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class EventFullDto {
 
     private Integer id;
@@ -0,0 +1,13 @@
+package ru.practicum.ewm.dto.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EventSuggestionDto {
+
+    private Integer id;
+
+    private String title;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.ewm.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import ru.practicum.ewm.model.AdminStateAction;
+
+import java.util.List;
+
+@Data
+public class EventBulkStateUpdateRequest {
+
+    @NotEmpty
+    @Size(max = 10000)
+    private List<Integer> eventIds;
+
+    @NotNull
+    private AdminStateAction stateAction;
+}
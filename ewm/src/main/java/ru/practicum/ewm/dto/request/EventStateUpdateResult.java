@@ -0,0 +1,19 @@
+package ru.practicum.ewm.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventStateUpdateResult {
+
+    private Integer eventId;
+
+    private boolean updated;
+
+    private String state;
+
+    private String reason;
+}
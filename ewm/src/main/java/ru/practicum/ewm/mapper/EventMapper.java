@@ -1,6 +1,9 @@
 package ru.practicum.ewm.mapper;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.ewm.dal.EventRow;
+import ru.practicum.ewm.dto.Location;
 import ru.practicum.ewm.dto.category.CategoryDto;
 import ru.practicum.ewm.dto.event.EventFullDto;
 import ru.practicum.ewm.dto.event.EventShortDto;
@@ -14,13 +17,18 @@ import ru.practicum.ewm.model.Event;
 import ru.practicum.ewm.model.EventStatus;
 import ru.practicum.ewm.model.User;
 import ru.practicum.ewm.model.UserStateAction;
+import ru.practicum.ewm.service.EventViewService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Component
+@RequiredArgsConstructor
 public class EventMapper {
 
+    private final EventViewService viewService;
+
     public EventFullDto mapToFull(Event event) {
         return EventFullDto.builder()
                 .id(event.getId())
@@ -69,8 +77,63 @@ public class EventMapper {
     }
 
     public List<EventShortDto> mapToShort(List<Event> events) {
+        Map<Integer, Integer> views = viewService.getViews(events);
         return events.stream()
-                .map(this::mapToShort)
+                .map(event -> {
+                    EventShortDto dto = mapToShort(event);
+                    dto.setViews(views.getOrDefault(event.getId(), event.getViews()));
+                    return dto;
+                })
+                .toList();
+    }
+
+    public EventFullDto mapToFull(EventRow row) {
+        return EventFullDto.builder()
+                .id(row.getId())
+                .annotation(row.getAnnotation())
+                .category(CategoryDto.builder()
+                        .id(row.getCategoryId())
+                        .name(row.getCategoryName())
+                        .build())
+                .confirmedRequests(row.getConfirmedRequests())
+                .createdOn(row.getCreatedOn())
+                .description(row.getDescription())
+                .eventDate(row.getEventDate())
+                .initiator(UserShortDto.builder()
+                        .id(row.getInitiatorId())
+                        .name(row.getInitiatorName())
+                        .build())
+                .location(new Location(row.getLat(), row.getLon()))
+                .paid(row.getPaid())
+                .participantLimit(row.getParticipantLimit())
+                .requestModeration(row.isRequestModeration())
+                .state(row.getState().toString())
+                .title(row.getTitle())
+                .views(row.getViews())
+                .build();
+    }
+
+    public List<EventShortDto> mapRowsToShort(List<EventRow> rows) {
+        Map<Integer, Integer> views = viewService.getViews(rows);
+        return rows.stream()
+                .map(row -> EventShortDto.builder()
+                        .id(row.getId())
+                        .description(row.getDescription())
+                        .annotation(row.getAnnotation())
+                        .category(CategoryDto.builder()
+                                .id(row.getCategoryId())
+                                .name(row.getCategoryName())
+                                .build())
+                        .confirmedRequests(row.getConfirmedRequests())
+                        .eventDate(row.getEventDate())
+                        .initiator(UserShortDto.builder()
+                                .id(row.getInitiatorId())
+                                .name(row.getInitiatorName())
+                                .build())
+                        .paid(row.getPaid())
+                        .title(row.getTitle())
+                        .views(views.getOrDefault(row.getId(), row.getViews()))
+                        .build())
                 .toList();
     }
 
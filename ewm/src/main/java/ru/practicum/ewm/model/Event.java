@@ -2,7 +2,7 @@ package ru.practicum.ewm.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -19,7 +19,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import ru.practicum.ewm.dto.Location;
-import ru.practicum.ewm.mapper.LocationMapper;
 
 import java.time.LocalDateTime;
 
@@ -29,7 +28,7 @@ import java.time.LocalDateTime;
 @Table(name = "events", schema = "public")
 @NoArgsConstructor
 @AllArgsConstructor
-public class Event {
+public class Event implements EventSummary {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -57,7 +56,7 @@ public class Event {
     @JoinColumn(name = "initiator_id", referencedColumnName = "id", nullable = false)
     private User initiator;
 
-    @Convert(converter = LocationMapper.class)
+    @Embedded
     private Location location;
 
     private Boolean paid;
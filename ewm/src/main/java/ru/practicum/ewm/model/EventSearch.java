@@ -0,0 +1,25 @@
+package ru.practicum.ewm.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+@Entity
+@Getter
+@Immutable
+@Table(name = "events")
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSearch {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "search_vector", insertable = false, updatable = false)
+    private String searchVector;
+}
@@ -0,0 +1,9 @@
+package ru.practicum.ewm.model;
+
+public enum EventSort {
+    ID,
+    EVENT_DATE,
+    VIEWS,
+    RELEVANCE,
+    DISTANCE
+}
@@ -0,0 +1,14 @@
+package ru.practicum.ewm.model;
+
+import java.time.LocalDateTime;
+
+public interface EventSummary {
+
+    Integer getId();
+
+    EventStatus getState();
+
+    LocalDateTime getCreatedOn();
+
+    int getViews();
+}
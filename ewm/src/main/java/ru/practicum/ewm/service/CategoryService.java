@@ -38,7 +38,7 @@ public class CategoryService {
     @Transactional(readOnly = true)
     public List<CategoryDto> getCategories(int from, int size) {
         Pageable page = PageRequest.of(from / size, size);
-        return categoryMapper.map(categoryRepository.findAll(page).toList());
+        return categoryMapper.map(categoryRepository.findAllBy(page).toList());
     }
 
     @Transactional(readOnly = true)
@@ -78,8 +78,7 @@ public class CategoryService {
     }
 
     private void checkUniqueness(String categoryName) {
-        if (categoryRepository.findAll().stream()
-                .anyMatch(cat -> cat.getName().equals(categoryName))) {
+        if (categoryRepository.existsByName(categoryName)) {
             throw new ValidationException(
                     String.format("Категория с названием %s уже существует", categoryName));
         }
@@ -33,12 +33,14 @@ public class CompilationService {
 
     private final EventMapper eventMapper;
 
+    private final EventViewService eventViewService;
+
     @Transactional
     public CompilationDto add(NewCompilationDto request) {
         List<Event> events = eventRepository.findByIdIn(request.getEvents());
         Compilation toCreate = compilationMapper.map(request, events);
         Compilation created = compilationRepository.save(toCreate);
-        return compilationMapper.map(created, created.getStatEvents().stream().map(eventMapper::mapToShort).toList());
+        return compilationMapper.map(created, eventMapper.mapToShort(created.getStatEvents()));
     }
 
     @Transactional
@@ -56,7 +58,12 @@ public class CompilationService {
 
     @Transactional(readOnly = true)
     public List<CompilationDto> findAll(boolean pinned, int from, int size) {
-        return compilationRepository.findCompilations(pinned, from, size).stream()
+        List<Compilation> compilations = compilationRepository.findCompilations(pinned, from, size);
+        // one bulk stats call for the whole page, the per-compilation mapping below is then served from the cache
+        eventViewService.getViews(compilations.stream()
+                .flatMap(c -> c.getStatEvents().stream())
+                .toList());
+        return compilations.stream()
                 .map(c -> compilationMapper.map(c, eventMapper.mapToShort(c.getStatEvents())))
                 .toList();
     }
@@ -0,0 +1,204 @@
+package ru.practicum.ewm.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.dal.EventCluster;
+import ru.practicum.ewm.dal.EventClusterRepository;
+import ru.practicum.ewm.dto.Location;
+import ru.practicum.ewm.dto.event.EventClusterDto;
+import ru.practicum.ewm.exception.ConditionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class EventClusterService {
+
+    private static final int MAX_ZOOM = 20;
+
+    private static final int CELLS_PER_TILE = 8;
+
+    private static final int MAX_TILES = 256;
+
+    private final EventClusterRepository clusterRepository;
+
+    private final Cache<Tile, List<EventClusterDto>> tiles;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public EventClusterService(EventClusterRepository clusterRepository,
+                               @Value("${ewm.clusters.cache-ttl-ms}") long cacheTtlMs,
+                               @Value("${ewm.clusters.cache-max-size}") long cacheMaxSize) {
+        this.clusterRepository = clusterRepository;
+        this.tiles = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    public List<EventClusterDto> getClusters(List<Double> bbox, int zoom) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new ConditionException("Уровень масштаба должен быть от 0 до " + MAX_ZOOM);
+        }
+        if (bbox == null || bbox.size() != 4 || bbox.contains(null)
+                || bbox.get(0) > bbox.get(2) || bbox.get(1) > bbox.get(3)) {
+            throw new ConditionException("Параметр bbox задаётся как minLon,minLat,maxLon,maxLat");
+        }
+        double minLon = bbox.get(0);
+        double minLat = bbox.get(1);
+        double maxLon = bbox.get(2);
+        double maxLat = bbox.get(3);
+
+        double tileSize = tileSize(zoom);
+        int minX = tileX(minLon, zoom);
+        int maxX = tileX(maxLon, zoom);
+        int minY = tileY(minLat, zoom);
+        int maxY = tileY(maxLat, zoom);
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) > MAX_TILES) {
+            throw new ConditionException("Область bbox слишком велика для масштаба " + zoom);
+        }
+
+        Map<Tile, List<EventClusterDto>> found = new HashMap<>();
+        Set<Tile> missing = new HashSet<>();
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                Tile tile = new Tile(zoom, x, y);
+                List<EventClusterDto> cached = tiles.getIfPresent(tile);
+                if (cached != null) {
+                    found.put(tile, cached);
+                } else {
+                    missing.add(tile);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            found.putAll(load(missing, zoom, tileSize));
+        }
+
+        List<EventClusterDto> result = new ArrayList<>();
+        found.values().forEach(clusters -> clusters.stream()
+                .filter(c -> c.getLon() >= minLon && c.getLon() <= maxLon && c.getLat() >= minLat && c.getLat() <= maxLat)
+                .forEach(result::add));
+        return result;
+    }
+
+    public void onEventChanged(Location oldLocation, boolean wasPublished, Location newLocation, boolean published) {
+        if (!wasPublished && !published) {
+            return;
+        }
+        Set<Tile> affected = new HashSet<>();
+        if (wasPublished && oldLocation != null) {
+            addTiles(affected, oldLocation);
+        }
+        if (published && newLocation != null) {
+            addTiles(affected, newLocation);
+        }
+        invalidateAfterCommit(affected);
+    }
+
+    public void onEventsChanged(List<Location> locations, boolean published) {
+        if (!published || locations.isEmpty()) {
+            return;
+        }
+        Set<Tile> affected = new HashSet<>();
+        locations.forEach(location -> addTiles(affected, location));
+        invalidateAfterCommit(affected);
+    }
+
+    // every zoom level has its own tile over the point, so all of them are evicted
+    private void addTiles(Set<Tile> affected, Location location) {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            affected.add(new Tile(zoom, tileX(location.getLon(), zoom), tileY(location.getLat(), zoom)));
+        }
+    }
+
+    private void invalidateAfterCommit(Set<Tile> affected) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(affected);
+                }
+            });
+        } else {
+            invalidate(affected);
+        }
+    }
+
+    private void invalidate(Set<Tile> affected) {
+        generation.incrementAndGet();
+        tiles.invalidateAll(affected);
+    }
+
+    private Map<Tile, List<EventClusterDto>> load(Set<Tile> missing, int zoom, double tileSize) {
+        int minX = missing.stream().mapToInt(Tile::x).min().orElseThrow();
+        int maxX = missing.stream().mapToInt(Tile::x).max().orElseThrow();
+        int minY = missing.stream().mapToInt(Tile::y).min().orElseThrow();
+        int maxY = missing.stream().mapToInt(Tile::y).max().orElseThrow();
+
+        long loadedGeneration = generation.get();
+        // one grouped query over the envelope of all missing tiles, then the cells are split back per tile
+        List<EventCluster> cells = clusterRepository.findClusters(
+                minX * tileSize - 180, minY * tileSize - 90,
+                (maxX + 1) * tileSize - 180, (maxY + 1) * tileSize - 90,
+                tileSize / CELLS_PER_TILE);
+
+        Map<Tile, List<EventClusterDto>> loaded = new HashMap<>();
+        missing.forEach(tile -> loaded.put(tile, new ArrayList<>()));
+        for (EventCluster cell : cells) {
+            Tile tile = new Tile(zoom, clampX(Math.floorDiv(cell.cellX(), CELLS_PER_TILE), zoom),
+                    clampY(Math.floorDiv(cell.cellY(), CELLS_PER_TILE), zoom));
+            List<EventClusterDto> clusters = loaded.get(tile);
+            if (clusters != null) {
+                clusters.add(EventClusterDto.builder()
+                        .lat(cell.lat())
+                        .lon(cell.lon())
+                        .count(cell.count())
+                        .build());
+            }
+        }
+        loaded.replaceAll((tile, clusters) -> List.copyOf(clusters));
+        tiles.putAll(loaded);
+        // an invalidation that ran while the query was in flight may have been overwritten by the put above
+        if (generation.get() != loadedGeneration) {
+            tiles.invalidateAll(loaded.keySet());
+        }
+        return loaded;
+    }
+
+    private static double tileSize(int zoom) {
+        return 360.0 / (1 << zoom);
+    }
+
+    private static int tileX(double lon, int zoom) {
+        return clampX((long) Math.floor((lon + 180) / tileSize(zoom)), zoom);
+    }
+
+    private static int tileY(double lat, int zoom) {
+        return clampY((long) Math.floor((lat + 90) / tileSize(zoom)), zoom);
+    }
+
+    // points on the +180 meridian or the north pole belong to the last tile rather than one past the grid
+    private static int clampX(long x, int zoom) {
+        return Math.clamp(x, 0, (1 << zoom) - 1);
+    }
+
+    private static int clampY(long y, int zoom) {
+        return Math.clamp(y, 0, Math.max(1, (1 << zoom) / 2) - 1);
+    }
+
+    private record Tile(int zoom, int x, int y) {
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.ewm.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.dto.event.EventFullDto;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntFunction;
+
+@Service
+public class EventDetailCache {
+
+    private final Cache<Integer, EventFullDto> events;
+
+    @Autowired
+    public EventDetailCache(@Value("${ewm.event-cache.ttl-ms}") long ttlMs,
+                            @Value("${ewm.event-cache.max-size}") long maxSize) {
+        this.events = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public EventFullDto get(int eventId, IntFunction<EventFullDto> loader) {
+        // concurrent misses on the same event wait for a single load instead of each hitting the database
+        EventFullDto cached = events.get(eventId, loader::apply);
+        return cached.toBuilder().build();
+    }
+
+    public void evict(int eventId) {
+        evict(List.of(eventId));
+    }
+
+    public void evict(Collection<Integer> eventIds) {
+        // evicting before commit would let a concurrent read cache the old row again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.invalidateAll(eventIds);
+                }
+            });
+        } else {
+            events.invalidateAll(eventIds);
+        }
+    }
+}
@@ -3,14 +3,23 @@ package ru.practicum.ewm.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.dal.CategoryRepository;
+import ru.practicum.ewm.dal.EventFilter;
+import ru.practicum.ewm.dal.EventModerationRepository;
+import ru.practicum.ewm.dal.EventModerationRow;
 import ru.practicum.ewm.dal.EventRepository;
+import ru.practicum.ewm.dal.EventRow;
 import ru.practicum.ewm.dal.UserRepository;
+import ru.practicum.ewm.dto.CursorPage;
+import ru.practicum.ewm.dto.Location;
 import ru.practicum.ewm.dto.event.EventFullDto;
 import ru.practicum.ewm.dto.event.EventShortDto;
 import ru.practicum.ewm.dto.event.NewEventDto;
+import ru.practicum.ewm.dto.request.EventBulkStateUpdateRequest;
+import ru.practicum.ewm.dto.request.EventStateUpdateResult;
 import ru.practicum.ewm.dto.request.UpdateEventAdminRequest;
 import ru.practicum.ewm.dto.request.UpdateEventRequest;
 import ru.practicum.ewm.dto.request.UpdateEventUserRequest;
@@ -21,11 +30,18 @@ import ru.practicum.ewm.mapper.EventMapper;
 import ru.practicum.ewm.model.AdminStateAction;
 import ru.practicum.ewm.model.Category;
 import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.model.EventSort;
 import ru.practicum.ewm.model.EventStatus;
 import ru.practicum.ewm.model.User;
+import ru.practicum.ewm.utils.Cursor;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static ru.practicum.ewm.exception.ErrorMessages.CATEGORY_NOT_FOUND;
 import static ru.practicum.ewm.exception.ErrorMessages.EVENT_NOT_FOUND;
@@ -36,6 +52,7 @@ import static ru.practicum.ewm.model.EventStatus.PUBLISHED;
 @RequiredArgsConstructor
 public class EventService {
 
+
     private final EventRepository eventRepository;
 
     private final UserRepository userRepository;
@@ -44,50 +61,128 @@ public class EventService {
 
     private final EventMapper eventMapper;
 
-    @Transactional(readOnly = true)
-    public List<EventFullDto> adminFindAll(List<Integer> users,
-                                           List<EventStatus> states,
-                                           List<Integer> categories,
-                                           LocalDateTime rangeStart,
-                                           LocalDateTime rangeEnd,
-                                           int from,
-                                           int size) {
+    private final EventSuggestService suggestService;
+
+    private final EventDetailCache detailCache;
 
+    private final EventClusterService clusterService;
+
+    private final EventModerationRepository moderationRepository;
+
+    @Transactional(readOnly = true)
+    public CursorPage<EventFullDto> adminFindAll(List<Integer> users,
+                                                 List<EventStatus> states,
+                                                 List<Integer> categories,
+                                                 LocalDateTime rangeStart,
+                                                 LocalDateTime rangeEnd,
+                                                 int from,
+                                                 int size,
+                                                 String cursor) {
+        Integer cursorId = null;
         Pageable pageable = PageRequest.of(from / size, size);
-        return eventRepository.findFilteredEvents(users, states, categories, rangeStart, rangeEnd, pageable).stream()
+        if (cursor != null) {
+            cursorId = Cursor.decode(cursor).id();
+            pageable = PageRequest.of(0, size);
+        }
+        EventFilter filter = EventFilter.builder()
+                .users(users)
+                .states(states)
+                .categories(categories)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .cursorId(cursorId)
+                .build();
+        Slice<EventRow> events = eventRepository.findByFilter(filter, pageable);
+        return new CursorPage<>(events.stream()
                 .map(eventMapper::mapToFull)
-                .toList();
+                .toList(), nextCursor(events, event -> ""));
     }
 
     @Transactional(readOnly = true)
-    public List<EventShortDto> findFilteredEvents(String text,
-                                                  List<Integer> categories,
-                                                  Boolean paid,
-                                                  LocalDateTime rangeStart,
-                                                  LocalDateTime rangeEnd,
-                                                  boolean onlyAvailable,
-                                                  String sort,
-                                                  int from,
-                                                  int size) {
+    public CursorPage<EventShortDto> findFilteredEvents(String text,
+                                                        List<Integer> categories,
+                                                        Boolean paid,
+                                                        LocalDateTime rangeStart,
+                                                        LocalDateTime rangeEnd,
+                                                        boolean onlyAvailable,
+                                                        String sort,
+                                                        int from,
+                                                        int size,
+                                                        String cursor,
+                                                        Double lat,
+                                                        Double lon,
+                                                        Double radius,
+                                                        List<Double> bbox) {
         if (rangeStart == null) {
             rangeStart = LocalDateTime.now();
         }
+        if (text != null && text.isBlank()) {
+            text = null;
+        }
         if (rangeEnd != null && rangeStart.isAfter(rangeEnd)) {
             throw new ConditionException("Начало мероприятия должно быть раньше его окончания");
         }
 
+        EventSort sortKey = parseSort(sort);
+        checkGeoFilter(sortKey, lat, lon, radius, bbox);
+        EventFilter.EventFilterBuilder filter = EventFilter.builder()
+                .states(List.of(PUBLISHED))
+                .text(text)
+                .categories(categories)
+                .paid(paid)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .onlyAvailable(onlyAvailable)
+                .lat(lat)
+                .lon(lon)
+                .radiusKm(radius)
+                .bbox(bbox)
+                .sort(sortKey);
         Pageable pageable = PageRequest.of(from / size, size);
-        return eventMapper.mapToShort(eventRepository.findFilteredEvents(
-                text, categories, paid, rangeStart,
-                rangeEnd, onlyAvailable, sort, pageable).toList());
+        if (cursor != null) {
+            // rank and distance have no stable seek key, so a cursor with them is a bad request (400)
+            if (sortKey == EventSort.RELEVANCE || sortKey == EventSort.DISTANCE) {
+                throw new ConditionException("Курсорная пагинация недоступна при сортировке " + sortKey);
+            }
+            Cursor decoded = Cursor.decode(cursor);
+            filter.cursorId(decoded.id());
+            try {
+                if (sortKey == EventSort.EVENT_DATE) {
+                    filter.cursorDate(LocalDateTime.parse(decoded.sortKey()));
+                } else if (sortKey == EventSort.VIEWS) {
+                    filter.cursorViews(Integer.valueOf(decoded.sortKey()));
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ConditionException("Курсор не соответствует сортировке " + sortKey);
+            }
+            pageable = PageRequest.of(0, size);
+        }
+
+        Slice<EventRow> events = eventRepository.findByFilter(filter.build(), pageable);
+        Function<EventRow, String> cursorKey = switch (sortKey) {
+            case EVENT_DATE -> event -> event.getEventDate().toString();
+            case VIEWS -> event -> String.valueOf(event.getViews());
+            case RELEVANCE, DISTANCE -> null;
+            default -> event -> "";
+        };
+        return new CursorPage<>(eventMapper.mapRowsToShort(events.toList()),
+                cursorKey == null ? null : nextCursor(events, cursorKey));
     }
 
     @Transactional(readOnly = true)
-    public List<EventShortDto> findByInitiator(int initiatorId, int from, int size) {
+    public CursorPage<EventShortDto> findByInitiator(int initiatorId, int from, int size, String cursor) {
+        Integer cursorId = null;
         Pageable pageable = PageRequest.of(from / size, size);
-        return eventRepository.findByInitiator_Id(initiatorId, pageable).stream()
-                .map(eventMapper::mapToShort)
-                .toList();
+        if (cursor != null) {
+            cursorId = Cursor.decode(cursor).id();
+            pageable = PageRequest.of(0, size);
+        }
+        EventFilter filter = EventFilter.builder()
+                .users(List.of(initiatorId))
+                .cursorId(cursorId)
+                .build();
+        Slice<EventRow> events = eventRepository.findByFilter(filter, pageable);
+        return new CursorPage<>(eventMapper.mapRowsToShort(events.toList()), nextCursor(events, event -> ""));
     }
 
     @Transactional(readOnly = true)
@@ -97,19 +192,9 @@ public class EventService {
         return eventMapper.mapToFull(event);
     }
 
-    @Transactional(readOnly = true)
     public EventFullDto findPublishedEventById(int eventId) {
-        Event event = eventRepository.findByIdAndState(eventId, PUBLISHED)
-                .orElseThrow(() -> new NotFoundException(EVENT_NOT_FOUND + eventId));
-        return eventMapper.mapToFull(event);
-    }
-
-    @Transactional
-    public void updateViews(int eventId, int views) {
-        Event event = eventRepository.findByIdAndState(eventId, PUBLISHED)
-                .orElseThrow(() -> new NotFoundException(EVENT_NOT_FOUND + eventId));
-        event.setViews(views);
-        eventRepository.save(event);
+        return detailCache.get(eventId, id -> eventMapper.mapToFull(eventRepository.findByIdAndState(id, PUBLISHED)
+                .orElseThrow(() -> new NotFoundException(EVENT_NOT_FOUND + id))));
     }
 
     @Transactional
@@ -161,12 +246,112 @@ public class EventService {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new NotFoundException(CATEGORY_NOT_FOUND + categoryId));
 
+        String oldTitle = event.getTitle();
+        Location oldLocation = event.getLocation();
+        boolean wasPublished = event.getState() == PUBLISHED;
         Event toUpdate = eventMapper.updatedEvent(event, request, category);
 
         Event updated = eventRepository.save(toUpdate);
+        suggestService.onEventChanged(updated.getId(), oldTitle, updated.getTitle(), updated.getState() == PUBLISHED);
+        detailCache.evict(updated.getId());
+        clusterService.onEventChanged(oldLocation, wasPublished, updated.getLocation(), updated.getState() == PUBLISHED);
         return eventMapper.mapToFull(updated);
     }
 
+    @Transactional
+    public List<EventStateUpdateResult> adminBulkUpdate(EventBulkStateUpdateRequest request) {
+        List<Integer> ids = request.getEventIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        boolean publish = request.getStateAction() == AdminStateAction.PUBLISH_EVENT;
+        LocalDateTime now = LocalDateTime.now();
+
+        // the transition rules live in the WHERE clause, so all events are checked and updated in one statement
+        Map<Integer, EventModerationRow> updated = (publish
+                ? moderationRepository.publish(ids, now, now.plusHours(1))
+                : moderationRepository.reject(ids)).stream()
+                .collect(Collectors.toMap(EventModerationRow::id, Function.identity()));
+        List<Integer> skippedIds = ids.stream()
+                .filter(id -> !updated.containsKey(id))
+                .toList();
+        Map<Integer, EventModerationRow> skipped = skippedIds.isEmpty() ? Map.of()
+                : moderationRepository.findByIds(skippedIds).stream()
+                .collect(Collectors.toMap(EventModerationRow::id, Function.identity()));
+
+        detailCache.evict(updated.keySet());
+        suggestService.onEventsChanged(updated.values().stream()
+                .collect(Collectors.toMap(EventModerationRow::id, EventModerationRow::title)), publish);
+        clusterService.onEventsChanged(updated.values().stream()
+                .map(row -> new Location(row.lat(), row.lon()))
+                .toList(), publish);
+
+        return ids.stream()
+                .map(id -> {
+                    EventModerationRow row = updated.get(id);
+                    if (row != null) {
+                        return new EventStateUpdateResult(id, true, row.state().toString(), null);
+                    }
+                    EventModerationRow current = skipped.get(id);
+                    if (current == null) {
+                        return new EventStateUpdateResult(id, false, null, EVENT_NOT_FOUND + id);
+                    }
+                    return new EventStateUpdateResult(id, false, current.state().toString(), rejectionReason(current, publish, now));
+                })
+                .toList();
+    }
+
+    private String rejectionReason(EventModerationRow event, boolean publish, LocalDateTime now) {
+        if (!publish) {
+            return "Невозможно отклонить уже опубликованное мероприятие";
+        }
+        if (event.state() != EventStatus.PENDING) {
+            return "Невозможно опубликовать мероприятие, поскольку оно находится в неправильном состоянии: " + event.state();
+        }
+        if (event.eventDate().isBefore(now.plusHours(1))) {
+            return "Дата начала мероприятия должна быть не ранее чем через час после публикации";
+        }
+        return "Мероприятие изменено параллельным запросом";
+    }
+
+    private EventSort parseSort(String sort) {
+        if (sort == null) {
+            return EventSort.ID;
+        }
+        try {
+            return EventSort.valueOf(sort);
+        } catch (IllegalArgumentException e) {
+            return EventSort.ID;
+        }
+    }
+
+    private void checkGeoFilter(EventSort sort, Double lat, Double lon, Double radius, List<Double> bbox) {
+        if ((lat == null) != (lon == null)) {
+            throw new ConditionException("Координаты lat и lon задаются только вместе");
+        }
+        if (lat != null && (lat < -90 || lat > 90 || lon < -180 || lon > 180)) {
+            throw new ConditionException("Некорректные координаты: " + lat + "," + lon);
+        }
+        if (radius != null && (lat == null || radius <= 0)) {
+            throw new ConditionException("Радиус поиска должен быть положительным и задаваться вместе с lat и lon");
+        }
+        if (sort == EventSort.DISTANCE && lat == null) {
+            throw new ConditionException("Для сортировки " + EventSort.DISTANCE + " нужны lat и lon");
+        }
+        if (bbox != null && (bbox.size() != 4 || bbox.contains(null)
+                || bbox.get(0) > bbox.get(2) || bbox.get(1) > bbox.get(3))) {
+            throw new ConditionException("Параметр bbox задаётся как minLon,minLat,maxLon,maxLat");
+        }
+    }
+
+    private String nextCursor(Slice<EventRow> events, Function<EventRow, String> sortKey) {
+        if (!events.hasNext() || !events.hasContent()) {
+            return null;
+        }
+        EventRow last = events.getContent().get(events.getNumberOfElements() - 1);
+        return Cursor.encode(sortKey.apply(last), last.getId());
+    }
+
     private void checkEventTime(LocalDateTime eventTime, int minHoursBeforeEvent) {
         if (eventTime.isBefore(LocalDateTime.now().plusHours(minHoursBeforeEvent))) {
             throw new ConditionException("Слишком поздно создавать мероприятие, должно быть как минимум "
@@ -0,0 +1,163 @@
+package ru.practicum.ewm.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.dal.EventRepository;
+import ru.practicum.ewm.dal.EventTitle;
+import ru.practicum.ewm.dto.event.EventSuggestionDto;
+import ru.practicum.ewm.exception.ConditionException;
+import ru.practicum.ewm.utils.RadixTrie;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.ewm.model.EventStatus.PUBLISHED;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventSuggestService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final EventRepository eventRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Integer, String> titles = new HashMap<>();
+
+    private RadixTrie trie = new RadixTrie();
+
+    // built before the web server starts, so no publish can commit between the read and the swap
+    @PostConstruct
+    public void rebuild() {
+        List<EventTitle> published = eventRepository.findByState(PUBLISHED);
+        RadixTrie rebuiltTrie = new RadixTrie();
+        Map<Integer, String> rebuiltTitles = new HashMap<>();
+        for (EventTitle event : published) {
+            index(rebuiltTrie, event.getId(), event.getTitle());
+            rebuiltTitles.put(event.getId(), event.getTitle());
+        }
+        lock.writeLock().lock();
+        try {
+            trie = rebuiltTrie;
+            titles = rebuiltTitles;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggestion index built for {} published events", published.size());
+    }
+
+    public List<EventSuggestionDto> suggest(String prefix, int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new ConditionException("Количество подсказок должно быть от 1 до " + MAX_LIMIT);
+        }
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.findByPrefix(normalized, limit).stream()
+                    .map(id -> EventSuggestionDto.builder()
+                            .id(id)
+                            .title(titles.get(id))
+                            .build())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void onEventChanged(int eventId, String oldTitle, String newTitle, boolean published) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                update(eventId, oldTitle, newTitle, published);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void onEventsChanged(Map<Integer, String> changedTitles, boolean published) {
+        if (changedTitles.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> changed = Map.copyOf(changedTitles);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                changed.forEach((eventId, title) -> update(eventId, title, title, published));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        // the index follows committed state only, so a rolled back publish never shows up in suggestions
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void update(int eventId, String oldTitle, String newTitle, boolean published) {
+        unindex(trie, eventId, oldTitle);
+        titles.remove(eventId);
+        if (published) {
+            index(trie, eventId, newTitle);
+            titles.put(eventId, newTitle);
+        }
+    }
+
+    private void index(RadixTrie target, int eventId, String title) {
+        String normalized = normalize(title);
+        for (int start : wordStarts(normalized)) {
+            target.put(normalized.substring(start), eventId);
+        }
+    }
+
+    private void unindex(RadixTrie target, int eventId, String title) {
+        String normalized = normalize(title);
+        for (int start : wordStarts(normalized)) {
+            target.remove(normalized.substring(start), eventId);
+        }
+    }
+
+    private List<Integer> wordStarts(String normalized) {
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ') {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    private String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+}
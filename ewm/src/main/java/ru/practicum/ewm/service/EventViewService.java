@@ -0,0 +1,177 @@
+package ru.practicum.ewm.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.practicum.ewm.dal.EventViewRepository;
+import ru.practicum.ewm.model.EventSummary;
+import ru.practicum.stat.client.ClientException;
+import ru.practicum.stat.dto.StatsQueryDto;
+import ru.practicum.stat.dto.ViewStatsDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.ewm.model.EventStatus.PUBLISHED;
+import static ru.practicum.ewm.utils.Constants.EVENT_URI_PREFIX;
+import static ru.practicum.ewm.utils.Constants.MAIN_SERVICE;
+
+@Slf4j
+@Service
+public class EventViewService {
+
+    private final StatisticsService statService;
+
+    private final EventViewRepository viewRepository;
+
+    private final EventDetailCache detailCache;
+
+    private final Cache<Integer, Integer> views;
+
+    private final Map<Integer, Integer> pendingViews = new ConcurrentHashMap<>();
+
+    private final Set<Integer> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Executor refreshExecutor;
+
+    @Autowired
+    public EventViewService(StatisticsService statService,
+                            EventViewRepository viewRepository,
+                            EventDetailCache detailCache,
+                            @Value("${ewm.views.cache-ttl-ms}") long cacheTtlMs,
+                            @Value("${ewm.views.cache-max-size}") long cacheMaxSize,
+                            @Value("${stats-server.batch.flush-interval-ms:1000}") long batchFlushIntervalMs,
+                            @Value("${ewm.views.refresh-margin-ms}") long refreshMarginMs) {
+        this.statService = statService;
+        this.viewRepository = viewRepository;
+        this.detailCache = detailCache;
+        this.views = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(cacheMaxSize)
+                .build();
+        this.refreshExecutor = CompletableFuture.delayedExecutor(batchFlushIntervalMs + refreshMarginMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Map<Integer, Integer> getViews(Collection<? extends EventSummary> events) {
+        Map<Integer, Integer> result = new HashMap<>();
+        List<ViewTarget> missing = new ArrayList<>();
+        for (EventSummary event : events) {
+            if (event.getState() != PUBLISHED) {
+                result.put(event.getId(), event.getViews());
+                continue;
+            }
+            Integer cached = views.getIfPresent(event.getId());
+            if (cached != null) {
+                result.put(event.getId(), cached);
+            } else {
+                missing.add(new ViewTarget(event.getId(), event.getCreatedOn(), event.getViews()));
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(fetchViews(missing));
+        }
+        return result;
+    }
+
+    public int getViewsAsync(int eventId, LocalDateTime createdOn, int storedViews) {
+        Integer cached = views.getIfPresent(eventId);
+        if (cached != null) {
+            return cached;
+        }
+        // the page is served with the last known count while a single refresh runs in the background;
+        // the refresh waits for the hit batcher to flush, so the count it caches includes this viewer's hit
+        if (refreshing.add(eventId)) {
+            List<ViewTarget> targets = List.of(new ViewTarget(eventId, createdOn, storedViews));
+            CompletableFuture.supplyAsync(() -> query(targets), refreshExecutor)
+                    .thenCompose(statService::getStatsBulkAsync)
+                    .whenComplete((stats, exception) -> {
+                        refreshing.remove(eventId);
+                        if (exception != null) {
+                            log.warn("Failed to refresh views of event {}: {}", eventId, exception.getMessage());
+                        } else {
+                            apply(targets, stats);
+                        }
+                    });
+        }
+        return storedViews;
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.views.flush-interval-ms}")
+    public void flushViews() {
+        if (pendingViews.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> batch = new HashMap<>(pendingViews);
+        viewRepository.updateViews(batch);
+        detailCache.evict(batch.keySet());
+        // counts that changed again during the flush stay pending for the next run
+        batch.forEach(pendingViews::remove);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flushViews();
+    }
+
+    private Map<Integer, Integer> fetchViews(List<ViewTarget> targets) {
+        try {
+            return apply(targets, statService.getStatsBulk(query(targets)));
+        } catch (ClientException e) {
+            log.warn("Failed to fetch event views, falling back to stored values: {}", e.getMessage());
+            Map<Integer, Integer> stored = new HashMap<>();
+            targets.forEach(target -> stored.put(target.eventId(), target.storedViews()));
+            return stored;
+        }
+    }
+
+    private StatsQueryDto query(List<ViewTarget> targets) {
+        LocalDateTime start = targets.stream()
+                .map(ViewTarget::createdOn)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        return StatsQueryDto.builder()
+                .start(start)
+                .end(LocalDateTime.now())
+                .uris(targets.stream().map(target -> EVENT_URI_PREFIX + target.eventId()).toList())
+                .unique(true)
+                .build();
+    }
+
+    private Map<Integer, Integer> apply(List<ViewTarget> targets, List<ViewStatsDto> stats) {
+        Map<String, Integer> hitsByUri = new HashMap<>();
+        for (ViewStatsDto stat : stats) {
+            if (MAIN_SERVICE.equals(stat.getApp())) {
+                hitsByUri.put(stat.getUri(), stat.getHits().intValue());
+            }
+        }
+        Map<Integer, Integer> fetched = new HashMap<>();
+        for (ViewTarget target : targets) {
+            int count = hitsByUri.getOrDefault(EVENT_URI_PREFIX + target.eventId(), 0);
+            fetched.put(target.eventId(), count);
+            if (count != target.storedViews()) {
+                pendingViews.put(target.eventId(), count);
+            }
+        }
+        views.putAll(fetched);
+        return fetched;
+    }
+
+    private record ViewTarget(int eventId, LocalDateTime createdOn, int storedViews) {
+    }
+}
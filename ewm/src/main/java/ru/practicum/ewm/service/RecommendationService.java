@@ -33,8 +33,6 @@ public class RecommendationService {
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getEventRecommendations(int userId) {
-        return eventRepository.getRecommendations(userId).stream()
-                .map(eventMapper::mapToShort)
-                .toList();
+        return eventMapper.mapToShort(eventRepository.getRecommendations(userId));
     }
 }
\ No newline at end of file
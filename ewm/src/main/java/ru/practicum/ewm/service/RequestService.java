@@ -33,6 +33,8 @@ public class RequestService {
 
     private final ParticipationRequestMapper requestMapper;
 
+    private final EventDetailCache detailCache;
+
     @Transactional(readOnly = true)
     public List<ParticipationRequestDto> getRequestsByUserId(int userId) {
         return requestRepository.findByRequesterId(userId)
@@ -71,6 +73,7 @@ public class RequestService {
 
         if (status.equals(RequestStatus.CONFIRMED)) {
             event.setConfirmedRequests(event.getConfirmedRequests() + 1);
+            detailCache.evict(eventId);
         }
 
         ParticipationRequest request = ParticipationRequest.builder()
@@ -134,6 +137,7 @@ public class RequestService {
         int availableRequestsToConfirm = Math.min(event.getParticipantLimit() - event.getConfirmedRequests(), reqs.size());
         event.setConfirmedRequests(event.getConfirmedRequests() + availableRequestsToConfirm);
         eventRepository.save(event);
+        detailCache.evict(eventId);
 
         EventRequestStatusUpdateResult result = new EventRequestStatusUpdateResult(new ArrayList<>(), new ArrayList<>());
         int i = 0;
@@ -4,12 +4,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ru.practicum.ewm.model.StatEvent;
+import ru.practicum.stat.client.HitBatcher;
 import ru.practicum.stat.client.StatisticsClient;
 import ru.practicum.stat.dto.CreateEndpointHitDto;
+import ru.practicum.stat.dto.StatsQueryDto;
 import ru.practicum.stat.dto.ViewStatsDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -17,6 +20,8 @@ public class StatisticsService {
 
     private final StatisticsClient statClient;
 
+    private final HitBatcher hitBatcher;
+
     public void sendStat(String serviceName, HttpServletRequest request) {
         String ip = request.getRemoteAddr();
         StatEvent statEvent = StatEvent.builder()
@@ -29,11 +34,19 @@ public class StatisticsService {
         requestDto.setUri(statEvent.getUri());
         requestDto.setApp(statEvent.getServiceName());
         requestDto.setIp(ip);
-        statClient.createRecord(requestDto);
+        hitBatcher.add(requestDto);
     }
 
     public List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique) {
         return statClient.getStats(start, end, uris, unique);
     }
 
+    public List<ViewStatsDto> getStatsBulk(StatsQueryDto query) {
+        return statClient.getStatsBulk(query);
+    }
+
+    public CompletableFuture<List<ViewStatsDto>> getStatsBulkAsync(StatsQueryDto query) {
+        return statClient.getStatsBulkAsync(query);
+    }
+
 }
\ No newline at end of file
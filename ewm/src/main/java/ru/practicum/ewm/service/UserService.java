@@ -3,15 +3,18 @@ package ru.practicum.ewm.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.dal.UserRepository;
+import ru.practicum.ewm.dto.CursorPage;
 import ru.practicum.ewm.dto.user.NewUserRequest;
 import ru.practicum.ewm.dto.user.UserDto;
 import ru.practicum.ewm.exception.NotFoundException;
 import ru.practicum.ewm.mapper.UserMapper;
 import ru.practicum.ewm.model.AllowedSubscriberGroup;
 import ru.practicum.ewm.model.User;
+import ru.practicum.ewm.utils.Cursor;
 
 import java.util.List;
 
@@ -26,11 +29,21 @@ public class UserService {
     private final UserMapper userMapper;
 
     @Transactional(readOnly = true)
-    public List<UserDto> findAll(List<Integer> ids, int from, int size) {
+    public CursorPage<UserDto> findAll(List<Integer> ids, int from, int size, String cursor) {
+        int afterId = 0;
         Pageable page = PageRequest.of(from / size, size);
-        return userRepository.findAll(ids, page).stream()
+        if (cursor != null) {
+            afterId = Cursor.decode(cursor).id();
+            page = PageRequest.of(0, size);
+        }
+        Slice<User> users = userRepository.findAll(ids, afterId, page);
+        String nextCursor = null;
+        if (users.hasNext() && users.hasContent()) {
+            nextCursor = Cursor.encode("", users.getContent().get(users.getNumberOfElements() - 1).getId());
+        }
+        return new CursorPage<>(users.stream()
                 .map(userMapper::map)
-                .toList();
+                .toList(), nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -5,4 +5,8 @@ public class Constants {
     public static final String MAIN_SERVICE = "ewm-main-service";
 
     public static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    public static final String EVENT_URI_PREFIX = "/events/";
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.practicum.ewm.utils;
+
+import ru.practicum.ewm.exception.ConditionException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record Cursor(String sortKey, int id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(String sortKey, int id) {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ConditionException("Некорректный курсор: " + cursor);
+            }
+            return new Cursor(raw.substring(0, separator), Integer.parseInt(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ConditionException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.ewm.utils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class RadixTrie {
+
+    private final Node root = new Node("");
+
+    public void put(String key, int value) {
+        if (key.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            char first = key.charAt(position);
+            Node child = node.children.get(first);
+            if (child == null) {
+                Node leaf = new Node(key.substring(position));
+                leaf.values.add(value);
+                node.children.put(first, leaf);
+                return;
+            }
+            int common = commonPrefixLength(child.label, key, position);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(first, split);
+                child = split;
+            }
+            position += common;
+            node = child;
+        }
+        node.values.add(value);
+    }
+
+    public void remove(String key, int value) {
+        if (!key.isEmpty()) {
+            remove(root, key, 0, value);
+        }
+    }
+
+    public List<Integer> findByPrefix(String prefix, int limit) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(position));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefixLength(child.label, prefix, position);
+            if (position + common < prefix.length() && common < child.label.length()) {
+                return List.of();
+            }
+            position += common;
+            node = child;
+        }
+        Set<Integer> found = new LinkedHashSet<>();
+        collect(node, found, limit);
+        return List.copyOf(found);
+    }
+
+    private void remove(Node parent, String key, int position, int value) {
+        char first = key.charAt(position);
+        Node child = parent.children.get(first);
+        if (child == null || !key.startsWith(child.label, position)) {
+            return;
+        }
+        int next = position + child.label.length();
+        if (next == key.length()) {
+            child.values.remove(value);
+        } else {
+            remove(child, key, next, value);
+        }
+        if (!child.values.isEmpty()) {
+            return;
+        }
+        // keep the trie compressed: drop empty leaves and merge pass-through nodes into their only child
+        if (child.children.isEmpty()) {
+            parent.children.remove(first);
+        } else if (child.children.size() == 1) {
+            Node only = child.children.firstEntry().getValue();
+            only.label = child.label + only.label;
+            parent.children.put(first, only);
+        }
+    }
+
+    private void collect(Node node, Set<Integer> found, int limit) {
+        for (Integer value : node.values) {
+            if (found.size() >= limit) {
+                return;
+            }
+            found.add(value);
+        }
+        for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+            if (found.size() >= limit) {
+                return;
+            }
+            collect(entry.getValue(), found, limit);
+        }
+    }
+
+    private int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+
+        private final Set<Integer> values = new LinkedHashSet<>();
+
+        private String label;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
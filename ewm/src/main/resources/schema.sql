@@ -24,7 +24,8 @@ CREATE TABLE IF NOT EXISTS events (
     description VARCHAR(7000) NOT NULL,
     event_date TIMESTAMP NOT NULL,
     initiator_id INTEGER NOT NULL,
-    location VARCHAR(50) NOT NULL,
+    lat DOUBLE PRECISION NOT NULL,
+    lon DOUBLE PRECISION NOT NULL,
     paid BOOLEAN DEFAULT FALSE,
     participant_limit INT DEFAULT 0,
     published_on TIMESTAMP,
@@ -32,10 +33,42 @@ CREATE TABLE IF NOT EXISTS events (
     state VARCHAR(50) NOT NULL,
     title VARCHAR(120) NOT NULL,
     views INTEGER DEFAULT 0,
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian'::regconfig, title), 'A') ||
+        setweight(to_tsvector('english'::regconfig, title), 'A') ||
+        setweight(to_tsvector('russian'::regconfig, annotation), 'B') ||
+        setweight(to_tsvector('english'::regconfig, annotation), 'B') ||
+        setweight(to_tsvector('russian'::regconfig, description), 'C') ||
+        setweight(to_tsvector('english'::regconfig, description), 'C')
+    ) STORED,
     CONSTRAINT fk_category FOREIGN KEY (category_id) REFERENCES categories(id),
     CONSTRAINT fk_initiator FOREIGN KEY (initiator_id) REFERENCES users(id)
     );
 
+CREATE INDEX IF NOT EXISTS idx_events_search_vector ON events USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_events_published_event_date ON events (event_date, id) WHERE state = 'PUBLISHED';
+
+CREATE INDEX IF NOT EXISTS idx_events_published_views ON events (views DESC, id) WHERE state = 'PUBLISHED';
+
+CREATE INDEX IF NOT EXISTS idx_events_published_category_date ON events (category_id, event_date) WHERE state = 'PUBLISHED';
+
+CREATE INDEX IF NOT EXISTS idx_events_location ON events USING GIST (point(lon, lat)) WHERE state = 'PUBLISHED';
+
+CREATE OR REPLACE FUNCTION earth_distance_km(lat1 DOUBLE PRECISION, lon1 DOUBLE PRECISION,
+                                             lat2 DOUBLE PRECISION, lon2 DOUBLE PRECISION) RETURNS DOUBLE PRECISION AS
+    $$ SELECT 2 * 6371.0088 * asin(least(1, sqrt(power(sin(radians(lat2 - lat1) / 2), 2) +
+           cos(radians(lat1)) * cos(radians(lat2)) * power(sin(radians(lon2 - lon1) / 2), 2)))) $$
+    LANGUAGE SQL IMMUTABLE;
+
+CREATE INDEX IF NOT EXISTS idx_events_initiator ON events (initiator_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date ON events (state, event_date);
+
+CREATE OR REPLACE FUNCTION event_search_query(query TEXT) RETURNS TSQUERY AS
+    $$ SELECT websearch_to_tsquery('russian'::regconfig, query) || websearch_to_tsquery('english'::regconfig, query) $$
+    LANGUAGE SQL IMMUTABLE;
+
 CREATE TABLE IF NOT EXISTS compilations (
     id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     pinned BOOLEAN NOT NULL,
@@ -50,12 +83,6 @@ CREATE TABLE IF NOT EXISTS compilation_events (
     CONSTRAINT fk_event FOREIGN KEY (event_id) REFERENCES events(id)
     );
 
-CREATE TABLE IF NOT EXISTS locations (
-    event_id INTEGER PRIMARY KEY,
-    latitude DOUBLE PRECISION NOT NULL,
-    longitude DOUBLE PRECISION NOT NULL
-);
-
 CREATE TABLE if NOT EXISTS requests (
     id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     created TIMESTAMP,
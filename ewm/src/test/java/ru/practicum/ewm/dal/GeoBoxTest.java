@@ -0,0 +1,95 @@
+package ru.practicum.ewm.dal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoBoxTest {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void usesDistanceFunctionDegreeLength() {
+        List<GeoBox> boxes = GeoBox.around(0, 0, KM_PER_DEGREE);
+
+        assertEquals(1, boxes.size());
+        GeoBox box = boxes.getFirst();
+        assertEquals(-1, box.minLat(), EPSILON);
+        assertEquals(1, box.maxLat(), EPSILON);
+        assertEquals(-1, box.minLon(), EPSILON);
+        assertEquals(1, box.maxLon(), EPSILON);
+    }
+
+    @Test
+    void widensLongitudeToTangentPointsAtHighLatitude() {
+        GeoBox box = GeoBox.around(80, 0, 5 * KM_PER_DEGREE).getFirst();
+
+        double expected = Math.toDegrees(Math.asin(Math.sin(Math.toRadians(5)) / Math.cos(Math.toRadians(80))));
+        assertEquals(expected, box.maxLon(), EPSILON);
+        assertTrue(box.maxLon() > 30);
+    }
+
+    @Test
+    void coversAllLongitudesWhenCircleContainsPole() {
+        List<GeoBox> boxes = GeoBox.around(89, 10, 200);
+
+        assertEquals(List.of(new GeoBox(-180, 89 - 200 / KM_PER_DEGREE, 180, 90)), boxes);
+    }
+
+    @Test
+    void splitsBoxAtAntimeridian() {
+        List<GeoBox> east = GeoBox.around(0, 179.5, KM_PER_DEGREE);
+        List<GeoBox> west = GeoBox.around(0, -179.5, KM_PER_DEGREE);
+
+        assertEquals(2, east.size());
+        assertEquals(180, east.get(0).maxLon(), EPSILON);
+        assertEquals(-179.5, east.get(1).maxLon(), EPSILON);
+        assertEquals(2, west.size());
+        assertEquals(179.5, west.get(0).minLon(), EPSILON);
+        assertEquals(-178.5, west.get(1).maxLon(), EPSILON);
+    }
+
+    @Test
+    void containsEveryPointWithinRadius() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2_000; i++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lon = random.nextDouble() * 360 - 180;
+            double radiusKm = random.nextDouble() * 3_000;
+            List<GeoBox> boxes = GeoBox.around(lat, lon, radiusKm);
+            for (int j = 0; j < 50; j++) {
+                double pointLat = Math.clamp(lat + random.nextGaussian() * radiusKm / KM_PER_DEGREE, -90, 90);
+                double pointLon = wrap(lon + random.nextGaussian() * 60);
+                if (distanceKm(lat, lon, pointLat, pointLon) <= radiusKm) {
+                    assertTrue(boxes.stream().anyMatch(box -> contains(box, pointLat, pointLon)),
+                            "point " + pointLat + "," + pointLon + " around " + lat + "," + lon + " r=" + radiusKm);
+                }
+            }
+        }
+    }
+
+    private static boolean contains(GeoBox box, double lat, double lon) {
+        return lon >= box.minLon() - EPSILON && lon <= box.maxLon() + EPSILON
+                && lat >= box.minLat() - EPSILON && lat <= box.maxLat() + EPSILON;
+    }
+
+    // the haversine formula of earth_distance_km in schema.sql
+    private static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double a = Math.pow(Math.sin(Math.toRadians(lat2 - lat1) / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.pow(Math.sin(Math.toRadians(lon2 - lon1) / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static double wrap(double lon) {
+        return ((lon + 180) % 360 + 360) % 360 - 180;
+    }
+}
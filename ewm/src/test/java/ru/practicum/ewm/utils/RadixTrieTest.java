@@ -0,0 +1,70 @@
+package ru.practicum.ewm.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RadixTrieTest {
+
+    private RadixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new RadixTrie();
+        trie.put("team", 1);
+        trie.put("tea", 2);
+        trie.put("ten", 3);
+    }
+
+    @Test
+    void splitsEdgesOnDivergingKeys() {
+        assertEquals(List.of(2, 1, 3), trie.findByPrefix("te", 10));
+        assertEquals(List.of(2, 1), trie.findByPrefix("tea", 10));
+        assertEquals(List.of(1), trie.findByPrefix("team", 10));
+        assertEquals(List.of(3), trie.findByPrefix("ten", 10));
+    }
+
+    @Test
+    void findsNothingForDivergingOrLongerPrefix() {
+        assertEquals(List.of(), trie.findByPrefix("teb", 10));
+        assertEquals(List.of(), trie.findByPrefix("teams", 10));
+        assertEquals(List.of(), trie.findByPrefix("x", 10));
+    }
+
+    @Test
+    void mergesPassThroughNodesOnRemove() {
+        trie.remove("tea", 2);
+
+        assertEquals(List.of(1), trie.findByPrefix("tea", 10));
+        assertEquals(List.of(1, 3), trie.findByPrefix("te", 10));
+
+        trie.remove("team", 1);
+
+        assertEquals(List.of(), trie.findByPrefix("tea", 10));
+        assertEquals(List.of(3), trie.findByPrefix("t", 10));
+        assertEquals(List.of(3), trie.findByPrefix("ten", 10));
+    }
+
+    @Test
+    void removeKeepsOtherValuesOfKey() {
+        trie.put("tea", 4);
+
+        trie.remove("tea", 2);
+        trie.remove("tea", 99);
+        trie.remove("coffee", 1);
+
+        assertEquals(List.of(4, 1), trie.findByPrefix("tea", 10));
+    }
+
+    @Test
+    void stopsAtLimitAndReturnsEachValueOnce() {
+        trie.put("tenth", 3);
+        trie.put("tent", 5);
+
+        assertEquals(List.of(2, 1), trie.findByPrefix("te", 2));
+        assertEquals(List.of(3, 5), trie.findByPrefix("ten", 10));
+    }
+}
@@ -0,0 +1,266 @@
+package ru.practicum.stat.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.stat.dto.CreateEndpointHitDto;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+@Component
+public class HitBatcher {
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentLinkedQueue<CreateEndpointHitDto> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final StatisticsClient statClient;
+
+    private final boolean enabled;
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private final long flushIntervalMs;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final long blockTimeoutNanos;
+
+    private final Counter sentCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter spooledCounter;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper;
+
+    private final Path spoolPath;
+
+    private final int spoolCapacity;
+
+    private ScheduledExecutorService flusher;
+
+    private HitSpool spool;
+
+    @Autowired
+    public HitBatcher(StatisticsClient statClient,
+                      MeterRegistry meterRegistry,
+                      ObjectMapper objectMapper,
+                      @Value("${stats-server.batch.enabled:true}") boolean enabled,
+                      @Value("${stats-server.batch.queue-capacity:10000}") int capacity,
+                      @Value("${stats-server.batch.size:500}") int batchSize,
+                      @Value("${stats-server.batch.flush-interval-ms:1000}") long flushIntervalMs,
+                      @Value("${stats-server.batch.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                      @Value("${stats-server.batch.block-timeout-ms:100}") long blockTimeoutMs,
+                      @Value("${stats-server.spool.path:${java.io.tmpdir}/ewm-stats-spool.dat}") String spoolPath,
+                      @Value("${stats-server.spool.capacity-bytes:67108864}") int spoolCapacity) {
+        this.statClient = statClient;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.spoolPath = Path.of(spoolPath);
+        this.spoolCapacity = spoolCapacity;
+        this.sentCounter = Counter.builder("stats.client.hits.sent").register(meterRegistry);
+        this.droppedCounter = Counter.builder("stats.client.hits.dropped").register(meterRegistry);
+        this.spooledCounter = Counter.builder("stats.client.hits.spooled").register(meterRegistry);
+        Gauge.builder("stats.client.queue.depth", size, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        // the spool and its replay run in both modes, so unbatched hits survive a stats server outage too
+        spool = new HitSpool(spoolPath, spoolCapacity, objectMapper);
+        Gauge.builder("stats.client.spool.bytes", spool, HitSpool::size).register(meterRegistry);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-client-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush().join();
+        spool.close();
+    }
+
+    public void add(CreateEndpointHitDto hit) {
+        if (!enabled) {
+            send(List.of(hit));
+            return;
+        }
+        if (!reserve()) {
+            return;
+        }
+        queue.add(hit);
+        if (size.get() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // the flusher is stopping, the hit stays queued for the final flush in stop()
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private boolean reserve() {
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> {
+                if (tryReserve()) {
+                    return true;
+                }
+                droppedCounter.increment();
+                return false;
+            }
+            case DROP_OLDEST -> {
+                while (!tryReserve()) {
+                    if (queue.poll() != null) {
+                        size.decrementAndGet();
+                        droppedCounter.increment();
+                    }
+                }
+                return true;
+            }
+            default -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (!tryReserve()) {
+                    if (System.nanoTime() >= deadline) {
+                        droppedCounter.increment();
+                        return false;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                return true;
+            }
+        }
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+            replaySpool();
+            spool.force();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush hits to stats server: {}", e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Void> flush() {
+        flushScheduled.set(false);
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        List<CreateEndpointHitDto> batch = drain();
+        while (!batch.isEmpty()) {
+            sends.add(send(batch));
+            batch = drain();
+        }
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
+    }
+
+    private void replaySpool() {
+        while (!spool.isEmpty()) {
+            HitSpool.Batch batch = spool.peek(batchSize);
+            if (batch.hits().isEmpty()) {
+                return;
+            }
+            try {
+                statClient.createRecordsAsync(batch.hits()).join();
+                sentCounter.increment(batch.hits().size());
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof RequestRejectedException)) {
+                    return;
+                }
+                // a batch the server refuses would block every spooled batch behind it
+                log.warn("Stats server rejected {} spooled hits, dropping them: {}", batch.hits().size(), e.getCause().getMessage());
+                droppedCounter.increment(batch.hits().size());
+            } catch (RuntimeException e) {
+                return;
+            }
+            spool.commit(batch);
+        }
+    }
+
+    private void spoolHits(List<CreateEndpointHitDto> batch) {
+        int spooled = spool.append(batch);
+        spooledCounter.increment(spooled);
+        droppedCounter.increment(batch.size() - spooled);
+    }
+
+    private List<CreateEndpointHitDto> drain() {
+        List<CreateEndpointHitDto> batch = new ArrayList<>(batchSize);
+        CreateEndpointHitDto hit;
+        while (batch.size() < batchSize && (hit = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(hit);
+        }
+        return batch;
+    }
+
+    private CompletableFuture<Void> send(List<CreateEndpointHitDto> batch) {
+        return statClient.createRecordsAsync(batch)
+                .handle((result, exception) -> {
+                    if (exception != null && exception.getCause() instanceof RequestRejectedException) {
+                        log.warn("Stats server rejected {} hits, dropping them: {}", batch.size(), exception.getMessage());
+                        droppedCounter.increment(batch.size());
+                    } else if (exception != null) {
+                        log.warn("Failed to send {} hits to stats server, spooling: {}", batch.size(), exception.getMessage());
+                        spoolHits(batch);
+                    } else {
+                        sentCounter.increment(batch.size());
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.stat.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.stat.dto.CreateEndpointHitDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HitSpool implements AutoCloseable {
+
+    private static final int HEADER_SIZE = 2 * Long.BYTES;
+
+    private static final int READ_POSITION_OFFSET = 0;
+
+    private static final int WRITE_POSITION_OFFSET = Long.BYTES;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final ObjectMapper objectMapper;
+
+    private int readPosition;
+
+    private int writePosition;
+
+    private long compactedBytes;
+
+    public HitSpool(Path path, int capacity, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long storedRead = buffer.getLong(READ_POSITION_OFFSET);
+        long storedWrite = buffer.getLong(WRITE_POSITION_OFFSET);
+        if (storedRead < HEADER_SIZE || storedWrite < storedRead || storedWrite > capacity) {
+            reset();
+        } else {
+            readPosition = (int) storedRead;
+            writePosition = (int) storedWrite;
+        }
+    }
+
+    public synchronized int append(List<CreateEndpointHitDto> hits) {
+        int appended = 0;
+        for (CreateEndpointHitDto hit : hits) {
+            byte[] record = serialize(hit);
+            int required = Integer.BYTES + record.length;
+            if (writePosition + required > buffer.capacity()) {
+                compact();
+            }
+            if (writePosition + required > buffer.capacity()) {
+                break;
+            }
+            buffer.putInt(writePosition, record.length);
+            buffer.put(writePosition + Integer.BYTES, record);
+            writePosition += required;
+            appended++;
+        }
+        // the header moves only after the records are written, so a crash never exposes a torn record
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+        return appended;
+    }
+
+    public synchronized Batch peek(int maxHits) {
+        List<CreateEndpointHitDto> hits = new ArrayList<>(maxHits);
+        int position = readPosition;
+        while (hits.size() < maxHits && position < writePosition) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + Integer.BYTES + length > writePosition) {
+                // a corrupted tail cannot be replayed, so everything after it is discarded
+                writePosition = position;
+                buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+                break;
+            }
+            byte[] record = new byte[length];
+            buffer.get(position + Integer.BYTES, record);
+            hits.add(deserialize(record));
+            position += Integer.BYTES + length;
+        }
+        return new Batch(hits, position, compactedBytes);
+    }
+
+    public synchronized void commit(Batch batch) {
+        // appends may have compacted the file while the batch was being sent
+        readPosition = (int) (batch.endPosition() - (compactedBytes - batch.compactedBytes()));
+        if (readPosition >= writePosition) {
+            reset();
+        } else {
+            buffer.putLong(READ_POSITION_OFFSET, readPosition);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return readPosition >= writePosition;
+    }
+
+    public synchronized int size() {
+        return writePosition - readPosition;
+    }
+
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void compact() {
+        if (readPosition == HEADER_SIZE) {
+            return;
+        }
+        int pending = writePosition - readPosition;
+        byte[] unread = new byte[pending];
+        buffer.get(readPosition, unread);
+        buffer.put(HEADER_SIZE, unread);
+        compactedBytes += readPosition - HEADER_SIZE;
+        readPosition = HEADER_SIZE;
+        writePosition = HEADER_SIZE + pending;
+        buffer.putLong(READ_POSITION_OFFSET, readPosition);
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+    }
+
+    private void reset() {
+        readPosition = HEADER_SIZE;
+        writePosition = HEADER_SIZE;
+        buffer.putLong(READ_POSITION_OFFSET, readPosition);
+        buffer.putLong(WRITE_POSITION_OFFSET, writePosition);
+    }
+
+    private byte[] serialize(CreateEndpointHitDto hit) {
+        try {
+            return objectMapper.writeValueAsBytes(hit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CreateEndpointHitDto deserialize(byte[] record) {
+        try {
+            return objectMapper.readValue(record, CreateEndpointHitDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Batch(List<CreateEndpointHitDto> hits, int endPosition, long compactedBytes) {
+    }
+}
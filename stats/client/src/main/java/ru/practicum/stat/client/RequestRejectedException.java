@@ -0,0 +1,8 @@
+package ru.practicum.stat.client;
+
+public class RequestRejectedException extends ClientException {
+
+    public RequestRejectedException(String message) {
+        super(message);
+    }
+}
@@ -2,69 +2,278 @@ package ru.practicum.stat.client;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.stat.dto.CreateEndpointHitDto;
-import ru.practicum.stat.dto.EndpointHitDto;
+import ru.practicum.stat.dto.StatsQueryDto;
 import ru.practicum.stat.dto.ViewStatsDto;
 
-import java.util.Arrays;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 
+@Slf4j
 @Service
 public class StatisticsClient {
 
-    private final RestTemplate restTemplate;
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Map<StatsKey, CachedStats> statsCache = new ConcurrentHashMap<>();
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectReader statsReader;
+
+    private final long statsCacheTtlMs;
+
+    private final int statsCacheMaxEntries;
+
+    private final String serverUrl;
+
+    private final Duration requestTimeout;
+
+    private final Semaphore permits;
+
+    private final CircuitBreaker circuitBreaker;
 
     @Autowired
     public StatisticsClient(
             @Value("${stats-server.url}") String serverUrl,
-            RestTemplateBuilder builder) {
-        this.restTemplate = builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+            @Value("${stats-server.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${stats-server.request-timeout-ms:5000}") long requestTimeoutMs,
+            @Value("${stats-server.max-concurrent-requests:64}") int maxConcurrentRequests,
+            @Value("${stats-server.stats-cache.ttl-ms:2000}") long statsCacheTtlMs,
+            @Value("${stats-server.stats-cache.max-entries:10000}") int statsCacheMaxEntries,
+            @Value("${stats-server.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${stats-server.circuit-breaker.open-duration-ms:10000}") long openDurationMs,
+            ObjectMapper objectMapper) {
+        this.serverUrl = serverUrl;
+        this.objectMapper = objectMapper;
+        this.statsReader = objectMapper.readerForListOf(ViewStatsDto.class);
+        this.statsCacheTtlMs = statsCacheTtlMs;
+        this.statsCacheMaxEntries = statsCacheMaxEntries;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
                 .build();
     }
 
     public List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique) {
+        return await(getStatsAsync(start, end, uris, unique));
+    }
+
+    public CompletableFuture<List<ViewStatsDto>> getStatsAsync(String start, String end, List<String> uris, boolean unique) {
+        if (statsCacheTtlMs <= 0) {
+            return fetchStats(start, end, uris, unique);
+        }
+        long now = System.currentTimeMillis();
+        StatsKey key = new StatsKey(start, endBucket(end), uris == null ? List.of() : uris.stream().sorted().toList(), unique);
+        CachedStats cached = statsCache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.stats();
+        }
+        if (statsCache.size() >= statsCacheMaxEntries) {
+            statsCache.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
 
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("start", start);
-        parameters.put("end", end);
-        parameters.put("uris", uris == null ? "" : String.join(",", uris));
-        parameters.put("unique", unique);
+        CachedStats fresh = new CachedStats(new CompletableFuture<>(), now + statsCacheTtlMs);
+        // concurrent callers for the same key share the single in-flight request
+        CachedStats winner = statsCache.compute(key, (k, current) ->
+                current != null && current.expiresAt() > now ? current : fresh);
+        if (winner == fresh) {
+            CompletableFuture<List<ViewStatsDto>> fetched;
+            try {
+                fetched = fetchStats(start, end, uris, unique);
+            } catch (RuntimeException exception) {
+                // callers already waiting on the shared entry must not hang until it expires
+                fetched = CompletableFuture.failedFuture(exception);
+            }
+            fetched.whenComplete((stats, exception) -> {
+                if (exception != null) {
+                    statsCache.remove(key, fresh);
+                    fresh.stats().completeExceptionally(exception);
+                } else {
+                    fresh.stats().complete(stats);
+                }
+            });
+        }
+        return winner.stats();
+    }
+
+    private CompletableFuture<List<ViewStatsDto>> fetchStats(String start, String end, List<String> uris, boolean unique) {
+        StringBuilder query = new StringBuilder("/stats?start=").append(encode(start))
+                .append("&end=").append(encode(end))
+                .append("&unique=").append(unique);
+        if (uris != null && !uris.isEmpty()) {
+            query.append("&uris=").append(encode(String.join(",", uris)));
+        }
+        HttpRequest request = request(query.toString()).GET().build();
+        return send(request, HttpResponse.BodyHandlers.ofInputStream(), this::readStats);
+    }
+
+    public List<ViewStatsDto> getStatsBulk(StatsQueryDto query) {
+        return await(getStatsBulkAsync(query));
+    }
 
-        ResponseEntity<String> response = restTemplate.getForEntity("/stats?start={start}&end={end}&uris={uris}&unique={unique}", String.class, parameters);
-        ObjectMapper objectMapper = new ObjectMapper();
+    public CompletableFuture<List<ViewStatsDto>> getStatsBulkAsync(StatsQueryDto query) {
+        HttpRequest request = request("/stats/query")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(write(query)))
+                .build();
+        return send(request, HttpResponse.BodyHandlers.ofInputStream(), this::readStats);
+    }
+
+    public void createRecord(CreateEndpointHitDto dto) {
+        createRecordAsync(dto).exceptionally(exception -> {
+            log.warn("Failed to send hit {} to stats server: {}", dto.getUri(), exception.getMessage());
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> createRecordAsync(CreateEndpointHitDto dto) {
+        HttpRequest request = request("/hit")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(write(dto)))
+                .build();
+        return send(request, HttpResponse.BodyHandlers.discarding(), body -> null);
+    }
 
+    public CompletableFuture<Void> createRecordsAsync(List<CreateEndpointHitDto> dtos) {
+        HttpRequest request = request("/hit/batch")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(write(dtos)))
+                .build();
+        return send(request, HttpResponse.BodyHandlers.discarding(), body -> null);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(serverUrl + path))
+                .timeout(requestTimeout)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private <B, T> CompletableFuture<T> send(HttpRequest request,
+                                             HttpResponse.BodyHandler<B> bodyHandler,
+                                             Function<B, T> bodyMapper) {
+        // the permit goes first: a half-open probe granted by the breaker must always reach onSuccess/onFailure
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new ClientException("Client error: too many concurrent requests"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            permits.release();
+            return CompletableFuture.failedFuture(new ClientException("Client error: stats server circuit is open"));
+        }
+        return httpClient.sendAsync(request, bodyHandler)
+                .whenComplete((response, exception) -> {
+                    permits.release();
+                    if (exception != null || response.statusCode() >= 500) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                })
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        close(response.body());
+                        if (isRejected(response.statusCode())) {
+                            throw new RequestRejectedException("Client error: stats server rejected the request with "
+                                    + response.statusCode());
+                        }
+                        throw new ClientException("Client error: stats server responded with " + response.statusCode());
+                    }
+                    return bodyMapper.apply(response.body());
+                });
+    }
+
+    // a 4xx reply will not change on retry, except for timeouts and ingest backpressure
+    private boolean isRejected(int statusCode) {
+        return statusCode / 100 == 4
+                && statusCode != HttpStatus.REQUEST_TIMEOUT.value()
+                && statusCode != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
         try {
-            return Arrays.asList(objectMapper.readValue(response.getBody(), ViewStatsDto[].class));
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof ClientException clientException) {
+                throw clientException;
+            }
+            throw new ClientException("Client error: " + exception.getCause().getMessage());
+        }
+    }
+
+    private List<ViewStatsDto> readStats(InputStream body) {
+        try (body) {
+            return List.copyOf(statsReader.<List<ViewStatsDto>>readValue(body));
+        } catch (IOException exception) {
+            throw new ClientException("Client error: " + exception.getMessage());
+        }
+    }
+
+    private void close(Object body) {
+        if (body instanceof InputStream stream) {
+            try {
+                stream.close();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
         } catch (JsonProcessingException exception) {
             throw new ClientException("Client error: " + exception.getMessage());
         }
     }
 
-    public void createRecord(CreateEndpointHitDto dto) {
-        HttpEntity<CreateEndpointHitDto> requestEntity = new HttpEntity<>(dto, defaultHeaders());
-        restTemplate.exchange("/hit", HttpMethod.POST, requestEntity, EndpointHitDto.class);
+    private String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private String endBucket(String end) {
+        try {
+            long epochMs = LocalDateTime.parse(end, DATE_TIME_FORMATTER).toInstant(ZoneOffset.UTC).toEpochMilli();
+            return String.valueOf(epochMs / statsCacheTtlMs);
+        } catch (DateTimeParseException exception) {
+            return end;
+        }
+    }
+
+    private record StatsKey(String start, String endBucket, List<String> uris, boolean unique) {
     }
 
-    private HttpHeaders defaultHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        return headers;
+    private record CachedStats(CompletableFuture<List<ViewStatsDto>> stats, long expiresAt) {
     }
-}
\ No newline at end of file
+}
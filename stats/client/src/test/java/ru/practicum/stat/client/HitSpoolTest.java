@@ -0,0 +1,89 @@
+package ru.practicum.stat.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.stat.dto.CreateEndpointHitDto;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HitSpoolTest {
+
+    private static final int HEADER_SIZE = 2 * Long.BYTES;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    private Path directory;
+
+    private int recordSize;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recordSize = Integer.BYTES + objectMapper.writeValueAsBytes(hit(1)).length;
+    }
+
+    @Test
+    void rejectsAppendsBeyondCapacity() {
+        try (HitSpool spool = spool(2)) {
+            assertEquals(2, spool.append(hits(1, 3)));
+            assertEquals(2 * recordSize, spool.size());
+        }
+    }
+
+    @Test
+    void compactsWhileBatchIsInFlight() {
+        try (HitSpool spool = spool(4)) {
+            spool.append(hits(1, 4));
+            spool.commit(spool.peek(2));
+
+            HitSpool.Batch inFlight = spool.peek(2);
+            assertEquals(hits(3, 4), inFlight.hits());
+            // the appends wrap to the start of the file, moving the unread records under the batch
+            assertEquals(2, spool.append(hits(5, 6)));
+            spool.commit(inFlight);
+
+            HitSpool.Batch rest = spool.peek(10);
+            assertEquals(hits(5, 6), rest.hits());
+            spool.commit(rest);
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    void keepsUncommittedHitsAcrossRestarts() {
+        try (HitSpool spool = spool(4)) {
+            spool.append(hits(1, 3));
+            spool.commit(spool.peek(1));
+        }
+        try (HitSpool spool = spool(4)) {
+            assertEquals(hits(2, 3), spool.peek(10).hits());
+        }
+    }
+
+    private HitSpool spool(int records) {
+        return new HitSpool(directory.resolve("spool.dat"), HEADER_SIZE + records * recordSize, objectMapper);
+    }
+
+    private List<CreateEndpointHitDto> hits(int from, int to) {
+        return IntStream.rangeClosed(from, to)
+                .mapToObj(this::hit)
+                .toList();
+    }
+
+    private CreateEndpointHitDto hit(int number) {
+        return CreateEndpointHitDto.builder()
+                .app("ewm-main-service")
+                .uri("/events/" + number)
+                .ip("192.168.0." + number)
+                .timestamp(LocalDateTime.of(2024, 1, 1, 12, 0, 0))
+                .build();
+    }
+}
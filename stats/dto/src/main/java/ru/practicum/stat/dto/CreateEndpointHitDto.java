@@ -17,6 +17,26 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class CreateEndpointHitDto {
 
+    private static final String OCTET = "(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)";
+
+    private static final String IPV4 = OCTET + "(\\." + OCTET + "){3}";
+
+    private static final String HEXTET = "[0-9A-Fa-f]{1,4}";
+
+    // full, compressed and IPv4-embedded forms, as servlet containers report the remote address of IPv6 clients
+    private static final String IPV6 = "(" + HEXTET + ":){7}" + HEXTET
+            + "|(" + HEXTET + ":){1,7}:"
+            + "|(" + HEXTET + ":){1,6}:" + HEXTET
+            + "|(" + HEXTET + ":){1,5}(:" + HEXTET + "){1,2}"
+            + "|(" + HEXTET + ":){1,4}(:" + HEXTET + "){1,3}"
+            + "|(" + HEXTET + ":){1,3}(:" + HEXTET + "){1,4}"
+            + "|(" + HEXTET + ":){1,2}(:" + HEXTET + "){1,5}"
+            + "|" + HEXTET + ":(:" + HEXTET + "){1,6}"
+            + "|:((:" + HEXTET + "){1,7}|:)"
+            + "|(" + HEXTET + ":){6}" + IPV4
+            + "|(" + HEXTET + ":){1,5}:" + IPV4
+            + "|::(" + HEXTET + ":){0,5}" + IPV4;
+
     @NotBlank
     private String app;
 
@@ -24,7 +44,7 @@ public class CreateEndpointHitDto {
     private String uri;
 
     @NotBlank
-    @Pattern(regexp = "^(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$", message = "Некорректный IP-адрес")
+    @Pattern(regexp = "^(" + IPV4 + "|" + IPV6 + ")$", message = "Некорректный IP-адрес")
     private String ip;
 
     @NotNull
@@ -1,5 +1,7 @@
 package ru.practicum.stat.server.controller;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.stat.dto.CreateEndpointHitDto;
 import ru.practicum.stat.dto.EndpointHitDto;
+import ru.practicum.stat.dto.StatsQueryDto;
 import ru.practicum.stat.server.model.ViewStats;
 import ru.practicum.stat.server.service.StatsService;
 
@@ -29,19 +32,54 @@ public class StatsController {
 
     @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
-    public EndpointHitDto saveHit(@RequestBody CreateEndpointHitDto hit) {
+    public EndpointHitDto saveHit(@RequestBody @Valid CreateEndpointHitDto hit) {
         log.info("Saving hit: " + hit.getUri());
         return statsService.saveHit(hit);
     }
 
+    @PostMapping("/hit/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void saveHits(@RequestBody List<@Valid CreateEndpointHitDto> hits) {
+        log.info("Saving {} hits", hits.size());
+        statsService.saveHits(hits);
+    }
+
 
     @GetMapping("/stats")
     public List<ViewStats> getStats(
             @RequestParam @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime start,
             @RequestParam @DateTimeFormat(pattern = DATE_TIME_FORMAT) LocalDateTime end,
             @RequestParam(required = false) List<String> uris,
-            @RequestParam(required = false, defaultValue = "false") boolean unique) {
-        log.info("Fetching stats from {} to {}, URIs: {}, Unique: {}", start, end, uris, unique);
-        return statsService.getStats(start, end, uris, unique);
+            @RequestParam(required = false, defaultValue = "false") boolean unique,
+            @RequestParam(required = false, defaultValue = "false") boolean approximate,
+            @RequestParam(required = false) @Positive Integer limit) {
+        log.info("Fetching stats from {} to {}, URIs: {}, Unique: {}, Approximate: {}, Limit: {}",
+                start, end, uris, unique, approximate, limit);
+        return statsService.getStats(start, end, uris, unique, approximate, limit);
+    }
+
+    @PostMapping("/stats/query")
+    public List<ViewStats> queryStats(@RequestBody @Valid StatsQueryDto query) {
+        log.info("Querying stats from {} to {} for {} URIs, Unique: {}, Approximate: {}, Limit: {}",
+                query.getStart(), query.getEnd(), query.getUris() == null ? 0 : query.getUris().size(),
+                query.isUnique(), query.isApproximate(), query.getLimit());
+        return statsService.getStats(query.getStart(), query.getEnd(), query.getUris(),
+                query.isUnique(), query.isApproximate(), query.getLimit());
+    }
+
+    @GetMapping("/stats/live")
+    public List<ViewStats> getLiveStats(
+            @RequestParam(defaultValue = "300") int window,
+            @RequestParam(required = false) List<String> uris) {
+        log.info("Fetching live stats for the last {} seconds, URIs: {}", window, uris);
+        return statsService.getLiveStats(window, uris);
+    }
+
+    @GetMapping("/stats/top")
+    public List<ViewStats> getTopStats(
+            @RequestParam(defaultValue = "300") int window,
+            @RequestParam(defaultValue = "10") @Positive int limit) {
+        log.info("Fetching top {} URIs for the last {} seconds", limit, window);
+        return statsService.getTopStats(window, limit);
     }
 }
\ No newline at end of file
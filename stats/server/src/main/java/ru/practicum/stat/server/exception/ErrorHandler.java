@@ -1,12 +1,14 @@
 package ru.practicum.stat.server.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,7 +21,8 @@ public class ErrorHandler {
 
     private static final String MESSAGE = "message";
 
-    @ExceptionHandler({MethodArgumentNotValidException.class, MissingServletRequestParameterException.class, ConditionException.class})
+    @ExceptionHandler({MethodArgumentNotValidException.class, HandlerMethodValidationException.class,
+            MissingServletRequestParameterException.class, ConditionException.class})
     public ResponseEntity<Map<String, String>> handleArgumentException(Exception ex) {
         log.debug("Validation error: {}", ex.getMessage());
         Map<String, String> errorResponse = new HashMap<>();
@@ -28,6 +31,17 @@ public class ErrorHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({IngestOverloadException.class})
+    public ResponseEntity<Map<String, String>> handleOverloadException(IngestOverloadException ex) {
+        log.debug("Ingest overload: {}", ex.getMessage());
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put(ERROR, "Too many requests");
+        errorResponse.put(MESSAGE, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler({Exception.class})
     public ResponseEntity<Map<String, String>> handleAnyException(Exception ex) {
         log.debug("Unexpected error: {}", ex.getMessage());
@@ -0,0 +1,14 @@
+package ru.practicum.stat.server.exception;
+
+import lombok.Getter;
+
+@Getter
+public class IngestOverloadException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public IngestOverloadException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
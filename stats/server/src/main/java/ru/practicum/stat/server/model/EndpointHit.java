@@ -1,37 +1,27 @@
 package ru.practicum.stat.server.model;
 
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.Table;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
 
-@Entity
-@Table(name = "endpoint_hits")
 @Getter
 @Setter
 @Builder
 public class EndpointHit {
 
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @Column(nullable = false)
     private String app;
 
-    @Column(nullable = false)
     private String uri;
 
-    @Column(nullable = false, length = 45)
     private String ip;
 
-    @Column(nullable = false)
     private LocalDateTime timestamp;
-}
\ No newline at end of file
+
+    private Integer appId;
+
+    private Integer uriId;
+}
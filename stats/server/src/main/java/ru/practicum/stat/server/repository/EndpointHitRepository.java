@@ -1,39 +1,74 @@
 package ru.practicum.stat.server.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import ru.practicum.stat.server.model.EndpointHit;
 import ru.practicum.stat.server.model.ViewStats;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface EndpointHitRepository extends JpaRepository<EndpointHit, Integer> {
-
-    EndpointHit save(EndpointHit hit);
-
-    @Query("SELECT new ru.practicum.stat.server.model.ViewStats(h.app, h.uri, " +
-            "CASE WHEN :unique = true THEN COUNT(DISTINCT h.ip) ELSE COUNT(h.ip) END) " +
-            "FROM EndpointHit h WHERE (CAST(:start AS timestamp) IS NULL OR h.timestamp >= :start) " +
-            "AND (CAST(:end AS timestamp) IS NULL OR h.timestamp <= :end) " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY CASE WHEN :unique = true THEN COUNT(DISTINCT h.ip) ELSE COUNT(h.ip) END DESC")
-    List<ViewStats> findStats(@Param("start") LocalDateTime start,
-                              @Param("end") LocalDateTime end,
-                              @Param("unique") boolean unique);
-
-    @Query("SELECT new ru.practicum.stat.server.model.ViewStats(h.app, h.uri, " +
-            "CASE WHEN :unique = true THEN COUNT(DISTINCT h.ip) ELSE COUNT(h.ip) END) " +
-            "FROM EndpointHit h WHERE (CAST(:start AS timestamp) IS NULL OR h.timestamp >= :start) " +
-            "AND (CAST(:end AS timestamp) IS NULL OR h.timestamp <= :end) " +
-            "AND h.uri IN :uris " +
-            "GROUP BY h.app, h.uri " +
-            "ORDER BY CASE WHEN :unique = true THEN COUNT(DISTINCT h.ip) ELSE COUNT(h.ip) END DESC")
-    List<ViewStats> findStatsByUris(@Param("start") LocalDateTime start,
-                                    @Param("end") LocalDateTime end,
-                                    @Param("uris") List<String> uris,
-                                    @Param("unique") boolean unique);
-}
\ No newline at end of file
+@RequiredArgsConstructor
+public class EndpointHitRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_HIT = "INSERT INTO endpoint_hits (app_id, uri_id, ip, timestamp) " +
+            "VALUES (?, ?, CAST(? AS inet), ?)";
+
+    private static final String LIMIT = " LIMIT :limit";
+
+    private static final String URI_FILTER = "AND uri_id IN (SELECT u.id FROM unnest(CAST(:uris AS varchar[])) AS q(name) " +
+            "JOIN uris u ON u.name = q.name) ";
+
+    private static final String FIND_UNIQUE_STATS = "SELECT a.name AS app, u.name AS uri, s.hits FROM (" +
+            "SELECT app_id, uri_id, COUNT(DISTINCT ip) AS hits FROM endpoint_hits " +
+            "WHERE timestamp >= :start AND timestamp <= :end %s" +
+            "GROUP BY app_id, uri_id" +
+            ") s JOIN apps a ON a.id = s.app_id JOIN uris u ON u.id = s.uri_id ORDER BY s.hits DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public EndpointHit save(EndpointHit hit) {
+        Integer id = jdbcTemplate.queryForObject(INSERT_HIT + " RETURNING id", Integer.class,
+                hit.getAppId(), hit.getUriId(), hit.getIp(), Timestamp.valueOf(hit.getTimestamp()));
+        hit.setId(id);
+        return hit;
+    }
+
+    public void insertAll(List<EndpointHit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_HIT, hits, BATCH_SIZE, (ps, hit) -> {
+            ps.setInt(1, hit.getAppId());
+            ps.setInt(2, hit.getUriId());
+            ps.setString(3, hit.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+    }
+
+    public List<ViewStats> findUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris, Integer limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end);
+        boolean filterUris = uris != null && !uris.isEmpty();
+        if (filterUris) {
+            params.addValue("uris", uris.toArray(String[]::new));
+        }
+        String sql = String.format(FIND_UNIQUE_STATS, filterUris ? URI_FILTER : "");
+        if (limit != null) {
+            sql += LIMIT;
+            params.addValue("limit", limit);
+        }
+        return namedJdbcTemplate.query(sql, params, (rs, rowNum) ->
+                new ViewStats(rs.getString("app"), rs.getString("uri"), rs.getLong("hits")));
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.stat.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class HitDictionaryRepository {
+
+    // DO UPDATE instead of DO NOTHING so that RETURNING also yields ids of names that already exist
+    private static final String UPSERT_NAMES = "INSERT INTO %s (name) SELECT n.name FROM unnest(?) AS n(name) ORDER BY n.name " +
+            "ON CONFLICT (name) DO UPDATE SET name = EXCLUDED.name RETURNING id, name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<String, Integer> upsertApps(Collection<String> names) {
+        return upsert("apps", names);
+    }
+
+    public Map<String, Integer> upsertUris(Collection<String> names) {
+        return upsert("uris", names);
+    }
+
+    private Map<String, Integer> upsert(String table, Collection<String> names) {
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(String.format(UPSERT_NAMES, table));
+            ps.setArray(1, con.createArrayOf("varchar", names.toArray()));
+            return ps;
+        }, rs -> {
+            ids.put(rs.getString("name"), rs.getInt("id"));
+        });
+        return ids;
+    }
+}
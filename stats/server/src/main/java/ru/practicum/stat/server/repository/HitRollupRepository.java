@@ -0,0 +1,117 @@
+package ru.practicum.stat.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stat.server.model.EndpointHit;
+import ru.practicum.stat.server.model.ViewStats;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+public class HitRollupRepository {
+
+    private static final String UPSERT_ROLLUP = "INSERT INTO %s (bucket, app_id, uri_id, hits) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (bucket, app_id, uri_id) DO UPDATE SET hits = %1$s.hits + EXCLUDED.hits";
+
+    private static final String LIMIT = " LIMIT :limit";
+
+    private static final String URI_FILTER = "AND uri_id IN (SELECT u.id FROM unnest(CAST(:uris AS varchar[])) AS q(name) " +
+            "JOIN uris u ON u.name = q.name) ";
+
+    private static final String FIND_STATS = "SELECT a.name AS app, u.name AS uri, s.hits FROM (" +
+            "SELECT app_id, uri_id, SUM(hits) AS hits FROM (" +
+            "SELECT app_id, uri_id, hits FROM hit_rollups_hour " +
+            "WHERE bucket >= :hourFrom AND bucket < :hourTo %1$s" +
+            "UNION ALL " +
+            "SELECT app_id, uri_id, hits FROM hit_rollups_minute " +
+            "WHERE ((bucket >= :minuteFrom AND bucket < :hourFrom) OR (bucket >= :hourTo AND bucket < :minuteTo)) %1$s" +
+            "UNION ALL " +
+            "SELECT app_id, uri_id, COUNT(*) AS hits FROM endpoint_hits " +
+            "WHERE ((timestamp >= :start AND timestamp < :minuteFrom) OR (timestamp >= :minuteTo AND timestamp <= :end)) %1$s" +
+            "GROUP BY app_id, uri_id" +
+            ") r GROUP BY app_id, uri_id" +
+            ") s JOIN apps a ON a.id = s.app_id JOIN uris u ON u.id = s.uri_id ORDER BY s.hits DESC";
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::bucket)
+            .thenComparingInt(RollupKey::appId)
+            .thenComparingInt(RollupKey::uriId);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public void addHits(List<EndpointHit> hits) {
+        upsert("hit_rollups_minute", aggregate(hits, ChronoUnit.MINUTES));
+        upsert("hit_rollups_hour", aggregate(hits, ChronoUnit.HOURS));
+    }
+
+    public List<ViewStats> findStats(LocalDateTime start, LocalDateTime end, List<String> uris, Integer limit) {
+        LocalDateTime minuteFrom = ceil(start, ChronoUnit.MINUTES);
+        LocalDateTime minuteTo = end.truncatedTo(ChronoUnit.MINUTES);
+        if (!minuteFrom.isBefore(minuteTo)) {
+            minuteFrom = end;
+            minuteTo = end;
+        }
+        LocalDateTime hourFrom = ceil(minuteFrom, ChronoUnit.HOURS);
+        LocalDateTime hourTo = minuteTo.truncatedTo(ChronoUnit.HOURS);
+        if (!hourFrom.isBefore(hourTo)) {
+            hourFrom = minuteTo;
+            hourTo = minuteTo;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("minuteFrom", minuteFrom)
+                .addValue("minuteTo", minuteTo)
+                .addValue("hourFrom", hourFrom)
+                .addValue("hourTo", hourTo);
+        boolean filterUris = uris != null && !uris.isEmpty();
+        if (filterUris) {
+            params.addValue("uris", uris.toArray(String[]::new));
+        }
+        String sql = String.format(FIND_STATS, filterUris ? URI_FILTER : "");
+        if (limit != null) {
+            sql += LIMIT;
+            params.addValue("limit", limit);
+        }
+        return namedJdbcTemplate.query(sql, params, (rs, rowNum) ->
+                new ViewStats(rs.getString("app"), rs.getString("uri"), rs.getLong("hits")));
+    }
+
+    private void upsert(String table, Map<RollupKey, Long> counts) {
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, hits) ->
+                rows.add(new Object[]{Timestamp.valueOf(key.bucket()), key.appId(), key.uriId(), hits}));
+        jdbcTemplate.batchUpdate(String.format(UPSERT_ROLLUP, table), rows);
+    }
+
+    private Map<RollupKey, Long> aggregate(List<EndpointHit> hits, ChronoUnit unit) {
+        // keys are sorted so that concurrent writers lock rollup rows in the same order
+        Map<RollupKey, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (EndpointHit hit : hits) {
+            RollupKey key = new RollupKey(hit.getTimestamp().truncatedTo(unit), hit.getAppId(), hit.getUriId());
+            counts.merge(key, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private LocalDateTime ceil(LocalDateTime time, ChronoUnit unit) {
+        LocalDateTime truncated = time.truncatedTo(unit);
+        return truncated.equals(time) ? time : truncated.plus(1, unit);
+    }
+
+    private record RollupKey(LocalDateTime bucket, int appId, int uriId) {
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.stat.server.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stat.server.model.AppUri;
+import ru.practicum.stat.server.model.EndpointHit;
+import ru.practicum.stat.server.model.ViewStats;
+import ru.practicum.stat.server.sketch.HyperLogLog;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+@Repository
+public class HitSketchRepository {
+
+    private static final String INSERT_EMPTY = "INSERT INTO hit_sketches_hour (bucket, app_id, uri_id, sketch) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (bucket, app_id, uri_id) DO NOTHING";
+
+    private static final String LOCK_SKETCHES = "SELECT s.bucket, s.app_id, s.uri_id, s.sketch FROM hit_sketches_hour s " +
+            "JOIN unnest(?, ?, ?) AS k(bucket, app_id, uri_id) " +
+            "ON s.bucket = k.bucket AND s.app_id = k.app_id AND s.uri_id = k.uri_id " +
+            "ORDER BY s.bucket, s.app_id, s.uri_id " +
+            "FOR UPDATE OF s";
+
+    private static final String UPDATE_SKETCH = "UPDATE hit_sketches_hour SET sketch = ? WHERE bucket = ? AND app_id = ? AND uri_id = ?";
+
+    private static final String URI_FILTER = "AND uri_id IN (SELECT u.id FROM unnest(CAST(:uris AS varchar[])) AS q(name) " +
+            "JOIN uris u ON u.name = q.name) ";
+
+    private static final String FIND_SKETCHES = "SELECT a.name AS app, u.name AS uri, s.sketch FROM hit_sketches_hour s " +
+            "JOIN apps a ON a.id = s.app_id JOIN uris u ON u.id = s.uri_id " +
+            "WHERE s.bucket >= :hourFrom AND s.bucket < :hourTo %s";
+
+    private static final String FIND_EDGE_IPS = "SELECT a.name AS app, u.name AS uri, e.ip FROM (" +
+            "SELECT DISTINCT app_id, uri_id, host(ip) AS ip FROM endpoint_hits " +
+            "WHERE ((timestamp >= :start AND timestamp < :hourFrom) OR (timestamp >= :hourTo AND timestamp <= :end)) %s" +
+            ") e JOIN apps a ON a.id = e.app_id JOIN uris u ON u.id = e.uri_id";
+
+    private static final Pattern IP_LITERAL = Pattern.compile("(\\d{1,3}\\.){3}\\d{1,3}|[0-9A-Fa-f:.]*:[0-9A-Fa-f:.]*");
+
+    private static final Comparator<SketchKey> KEY_ORDER = Comparator.comparing(SketchKey::bucket)
+            .thenComparingInt(SketchKey::appId)
+            .thenComparingInt(SketchKey::uriId);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final int precision;
+
+    @Autowired
+    public HitSketchRepository(JdbcTemplate jdbcTemplate,
+                               NamedParameterJdbcTemplate namedJdbcTemplate,
+                               @Value("${stats.hll.precision}") int precision) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("stats.hll.precision должен быть от "
+                    + HyperLogLog.MIN_PRECISION + " до " + HyperLogLog.MAX_PRECISION);
+        }
+        this.precision = precision;
+    }
+
+    public void addHits(List<EndpointHit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        Map<SketchKey, HyperLogLog> batch = new TreeMap<>(KEY_ORDER);
+        for (EndpointHit hit : hits) {
+            SketchKey key = new SketchKey(hit.getTimestamp().truncatedTo(ChronoUnit.HOURS), hit.getAppId(), hit.getUriId());
+            batch.computeIfAbsent(key, k -> new HyperLogLog(precision)).add(canonicalIp(hit.getIp()));
+        }
+        List<SketchKey> keys = new ArrayList<>(batch.keySet());
+
+        byte[] empty = new HyperLogLog(precision).toBytes();
+        jdbcTemplate.batchUpdate(INSERT_EMPTY, keys, keys.size(), (ps, key) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(key.bucket()));
+            ps.setInt(2, key.appId());
+            ps.setInt(3, key.uriId());
+            ps.setBytes(4, empty);
+        });
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_SKETCHES);
+            ps.setArray(1, con.createArrayOf("timestamp", keys.stream().map(k -> Timestamp.valueOf(k.bucket())).toArray()));
+            ps.setArray(2, con.createArrayOf("integer", keys.stream().map(SketchKey::appId).toArray()));
+            ps.setArray(3, con.createArrayOf("integer", keys.stream().map(SketchKey::uriId).toArray()));
+            return ps;
+        }, rs -> {
+            SketchKey key = new SketchKey(rs.getTimestamp("bucket").toLocalDateTime(), rs.getInt("app_id"), rs.getInt("uri_id"));
+            batch.put(key, batch.get(key).merge(HyperLogLog.fromBytes(rs.getBytes("sketch"))));
+        });
+
+        jdbcTemplate.batchUpdate(UPDATE_SKETCH, keys, keys.size(), (ps, key) -> {
+            ps.setBytes(1, batch.get(key).toBytes());
+            ps.setTimestamp(2, Timestamp.valueOf(key.bucket()));
+            ps.setInt(3, key.appId());
+            ps.setInt(4, key.uriId());
+        });
+    }
+
+    public List<ViewStats> findUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris, Integer limit) {
+        LocalDateTime hourFrom = start.truncatedTo(ChronoUnit.HOURS);
+        if (hourFrom.isBefore(start)) {
+            hourFrom = hourFrom.plusHours(1);
+        }
+        LocalDateTime hourTo = end.truncatedTo(ChronoUnit.HOURS);
+        if (!hourFrom.isBefore(hourTo)) {
+            hourFrom = end;
+            hourTo = end;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("hourFrom", hourFrom)
+                .addValue("hourTo", hourTo);
+        boolean filterUris = uris != null && !uris.isEmpty();
+        if (filterUris) {
+            params.addValue("uris", uris.toArray(String[]::new));
+        }
+        String uriFilter = filterUris ? URI_FILTER : "";
+
+        Map<AppUri, HyperLogLog> sketches = new HashMap<>();
+        namedJdbcTemplate.query(String.format(FIND_SKETCHES, uriFilter), params, rs -> {
+            HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes("sketch"));
+            sketches.merge(new AppUri(rs.getString("app"), rs.getString("uri")), sketch, HyperLogLog::merge);
+        });
+        namedJdbcTemplate.query(String.format(FIND_EDGE_IPS, uriFilter), params, rs -> {
+            sketches.computeIfAbsent(new AppUri(rs.getString("app"), rs.getString("uri")), k -> new HyperLogLog(precision))
+                    .add(canonicalIp(rs.getString("ip")));
+        });
+
+        List<ViewStats> stats = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) -> stats.add(new ViewStats(key.app(), key.uri(), sketch.estimate())));
+        stats.sort(Comparator.comparingLong(ViewStats::getHits).reversed());
+        return limit != null && limit < stats.size() ? stats.subList(0, limit) : stats;
+    }
+
+    // ingest hashes the request string and the edge query hashes host(inet), so both go through one textual form
+    private static String canonicalIp(String ip) {
+        if (ip == null || !IP_LITERAL.matcher(ip).matches()) {
+            return ip;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(ip);
+            String host = address.getHostAddress();
+            // Java unwraps IPv4-mapped IPv6 addresses, while inet keeps them distinct from plain IPv4
+            return address instanceof Inet4Address && ip.indexOf(':') >= 0 ? "::ffff:" + host : host;
+        } catch (UnknownHostException | RuntimeException e) {
+            return ip;
+        }
+    }
+
+    private record SketchKey(LocalDateTime bucket, int appId, int uriId) {
+    }
+}
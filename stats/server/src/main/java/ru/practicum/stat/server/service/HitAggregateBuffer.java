@@ -0,0 +1,73 @@
+package ru.practicum.stat.server.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.stat.server.model.EndpointHit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+@Slf4j
+@Component
+public class HitAggregateBuffer {
+
+    private final HitWriter hitWriter;
+
+    private final BlockingQueue<EndpointHit> queue;
+
+    private final Counter droppedCounter;
+
+    @Autowired
+    public HitAggregateBuffer(HitWriter hitWriter,
+                              MeterRegistry meterRegistry,
+                              @Value("${stats.aggregate.capacity}") int capacity) {
+        this.hitWriter = hitWriter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        Gauge.builder("stats.aggregate.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("stats.aggregate.dropped")
+                .register(meterRegistry);
+    }
+
+    // the hit row is already committed, only its rollup and sketch updates wait for the next flush
+    public void add(EndpointHit hit) {
+        if (!queue.offer(hit)) {
+            droppedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stats.aggregate.flush-interval-ms}")
+    public void flush() {
+        List<EndpointHit> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            hitWriter.writeAggregates(batch);
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush rollups and sketches for {} hits", batch.size(), ex);
+            long requeued = batch.stream()
+                    .filter(queue::offer)
+                    .count();
+            droppedCounter.increment(batch.size() - requeued);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!queue.isEmpty()) {
+            log.warn("Lost rollup and sketch updates for {} hits on shutdown", queue.size());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.stat.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.stat.server.model.EndpointHit;
+import ru.practicum.stat.server.repository.HitDictionaryRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+public class HitDictionary {
+
+    private final HitDictionaryRepository dictionaryRepository;
+
+    private final Cache<String, Integer> appIds;
+
+    private final Cache<String, Integer> uriIds;
+
+    @Autowired
+    public HitDictionary(HitDictionaryRepository dictionaryRepository,
+                         @Value("${stats.dictionary.cache-size}") long cacheSize) {
+        this.dictionaryRepository = dictionaryRepository;
+        this.appIds = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.uriIds = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    public void encode(List<EndpointHit> hits) {
+        Map<String, Integer> apps = resolve(hits, EndpointHit::getApp, appIds, dictionaryRepository::upsertApps);
+        Map<String, Integer> uris = resolve(hits, EndpointHit::getUri, uriIds, dictionaryRepository::upsertUris);
+        for (EndpointHit hit : hits) {
+            hit.setAppId(apps.get(hit.getApp()));
+            hit.setUriId(uris.get(hit.getUri()));
+        }
+    }
+
+    private Map<String, Integer> resolve(List<EndpointHit> hits,
+                                         Function<EndpointHit, String> name,
+                                         Cache<String, Integer> cache,
+                                         Function<Collection<String>, Map<String, Integer>> upsert) {
+        Set<String> names = new HashSet<>();
+        hits.forEach(hit -> names.add(name.apply(hit)));
+        Map<String, Integer> ids = new HashMap<>(cache.getAllPresent(names));
+        names.removeAll(ids.keySet());
+        if (!names.isEmpty()) {
+            Map<String, Integer> created = upsert.apply(names);
+            ids.putAll(created);
+            cacheAfterCommit(cache, created);
+        }
+        return ids;
+    }
+
+    private void cacheAfterCommit(Cache<String, Integer> cache, Map<String, Integer> ids) {
+        // ids inserted by a transaction that later rolls back must not stay in the cache
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.putAll(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.putAll(ids);
+            }
+        });
+    }
+}
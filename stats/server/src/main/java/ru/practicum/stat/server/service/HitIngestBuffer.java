@@ -0,0 +1,167 @@
+package ru.practicum.stat.server.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.stat.server.model.EndpointHit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+public class HitIngestBuffer {
+
+    private final HitWriter hitWriter;
+
+    private final boolean enabled;
+
+    private final int flushSize;
+
+    private final long flushIntervalMs;
+
+    private final BlockingQueue<EndpointHit> queue;
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hit-ingest-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DistributionSummary flushSizeSummary;
+
+    private final Timer flushTimer;
+
+    private final Counter droppedCounter;
+
+    @Autowired
+    public HitIngestBuffer(HitWriter hitWriter,
+                           MeterRegistry meterRegistry,
+                           @Value("${stats.ingest.mode}") IngestMode mode,
+                           @Value("${stats.ingest.buffer-capacity}") int capacity,
+                           @Value("${stats.ingest.flush-size}") int flushSize,
+                           @Value("${stats.ingest.flush-interval-ms}") long flushIntervalMs) {
+        this.hitWriter = hitWriter;
+        this.enabled = mode == IngestMode.BUFFERED;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        Gauge.builder("stats.ingest.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        this.flushSizeSummary = DistributionSummary.builder("stats.ingest.flush.size")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("stats.ingest.flush.latency")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("stats.ingest.dropped")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean offer(EndpointHit hit) {
+        if (!queue.offer(hit)) {
+            return false;
+        }
+        if (queue.size() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException ex) {
+                // the flusher is stopping, the hit stays queued for the final drain in shutdown()
+                flushRequested.set(false);
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        if (!flusher.awaitTermination(flushIntervalMs * 10, TimeUnit.MILLISECONDS)) {
+            log.warn("Hit ingest flusher did not stop in time");
+        }
+        flush();
+        if (!queue.isEmpty()) {
+            log.warn("Lost {} buffered hits on shutdown", queue.size());
+        }
+    }
+
+    private void flush() {
+        flushRequested.set(false);
+        int drained;
+        do {
+            List<EndpointHit> batch = new ArrayList<>(flushSize);
+            drained = queue.drainTo(batch, flushSize);
+            if (drained > 0 && !write(batch)) {
+                return;
+            }
+        } while (drained == flushSize);
+    }
+
+    private boolean write(List<EndpointHit> batch) {
+        try {
+            flushTimer.record(() -> hitWriter.writeAll(batch));
+            flushSizeSummary.record(batch.size());
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Database rejected a batch of {} buffered hits, writing them one by one", batch.size());
+            return writeEach(batch);
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush {} buffered hits", batch.size(), ex);
+            requeue(batch);
+            return false;
+        }
+    }
+
+    // a row the database will never accept is dropped alone instead of sending the whole batch back to the queue
+    private boolean writeEach(List<EndpointHit> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            EndpointHit hit = batch.get(i);
+            try {
+                hitWriter.writeAll(List.of(hit));
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("Dropping hit {} {} from {}: {}", hit.getApp(), hit.getUri(), hit.getIp(), ex.getMessage());
+                droppedCounter.increment();
+            } catch (RuntimeException ex) {
+                log.error("Failed to flush {} buffered hits", batch.size() - i, ex);
+                requeue(batch.subList(i, batch.size()));
+                return false;
+            }
+        }
+        flushSizeSummary.record(batch.size());
+        return true;
+    }
+
+    private void requeue(List<EndpointHit> hits) {
+        long requeued = hits.stream()
+                .filter(queue::offer)
+                .count();
+        droppedCounter.increment(hits.size() - requeued);
+    }
+}
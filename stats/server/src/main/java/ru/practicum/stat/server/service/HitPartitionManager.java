@@ -0,0 +1,72 @@
+package ru.practicum.stat.server.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.stat.server.repository.HitPartitionRepository;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HitPartitionManager {
+
+    private final HitPartitionRepository partitionRepository;
+
+    @Value("${stats.partitions.premake-months}")
+    private int premakeMonths;
+
+    @Value("${stats.partitions.retention-months}")
+    private int retentionMonths;
+
+    @Value("${stats.partitions.retention-action}")
+    private RetentionAction retentionAction;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${stats.partitions.maintenance-cron}")
+    public void maintainPartitions() {
+        if (!partitionRepository.tryLock()) {
+            log.info("Partition maintenance is already running elsewhere");
+            return;
+        }
+        List<YearMonth> existing = partitionRepository.findPartitions();
+        YearMonth current = YearMonth.now();
+
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                log.info("Creating endpoint_hits partition for {}", month);
+                partitionRepository.createPartition(month);
+            }
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        existing.stream()
+                .filter(month -> month.isBefore(oldestKept))
+                .forEach(month -> {
+                    log.info("Retention: {} endpoint_hits partition for {}", retentionAction, month);
+                    if (retentionAction == RetentionAction.DROP) {
+                        partitionRepository.dropPartition(month);
+                    } else {
+                        partitionRepository.detachPartition(month);
+                    }
+                });
+        // late hits older than every monthly partition land in the default one, which has no partition to drop;
+        // DETACH keeps expired data around, so those rows are only deleted when retention drops it
+        if (retentionAction != RetentionAction.DROP) {
+            return;
+        }
+        int purged = partitionRepository.purgeDefaultPartition(oldestKept);
+        if (purged > 0) {
+            log.info("Retention: deleted {} hits older than {} from endpoint_hits_default", purged, oldestKept);
+        }
+    }
+}
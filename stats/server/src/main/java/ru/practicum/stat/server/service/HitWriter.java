@@ -0,0 +1,47 @@
+package ru.practicum.stat.server.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.stat.server.model.EndpointHit;
+import ru.practicum.stat.server.repository.EndpointHitRepository;
+import ru.practicum.stat.server.repository.HitRollupRepository;
+import ru.practicum.stat.server.repository.HitSketchRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class HitWriter {
+
+    private final EndpointHitRepository hitRepository;
+
+    private final HitDictionary dictionary;
+
+    private final HitRollupRepository rollupRepository;
+
+    private final HitSketchRepository sketchRepository;
+
+    @Transactional
+    public EndpointHit write(EndpointHit hit) {
+        dictionary.encode(List.of(hit));
+        return hitRepository.save(hit);
+    }
+
+    @Transactional
+    public void writeAll(List<EndpointHit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        dictionary.encode(hits);
+        hitRepository.insertAll(hits);
+        rollupRepository.addHits(hits);
+        sketchRepository.addHits(hits);
+    }
+
+    @Transactional
+    public void writeAggregates(List<EndpointHit> hits) {
+        rollupRepository.addHits(hits);
+        sketchRepository.addHits(hits);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.stat.server.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.stat.server.model.AppUri;
+import ru.practicum.stat.server.model.EndpointHit;
+import ru.practicum.stat.server.model.ViewStats;
+import ru.practicum.stat.server.sketch.SlidingWindowCounter;
+import ru.practicum.stat.server.sketch.TimeSlots;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class LiveHitCounter {
+
+    private final Map<AppUri, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final TimeSlots slots;
+
+    private final int maxTrackedUris;
+
+    @Autowired
+    public LiveHitCounter(@Value("${stats.live.slot-seconds}") int slotSeconds,
+                          @Value("${stats.live.slots}") int slotCount,
+                          @Value("${stats.live.max-tracked-uris}") int maxTrackedUris) {
+        this.slots = new TimeSlots(slotSeconds, slotCount);
+        this.maxTrackedUris = maxTrackedUris;
+    }
+
+    public void record(EndpointHit hit) {
+        long currentEpoch = slots.currentEpoch();
+        long epoch = slots.epochOf(hit.getTimestamp(), currentEpoch);
+        if (!slots.isRetained(epoch, currentEpoch)) {
+            return;
+        }
+        counters.computeIfAbsent(new AppUri(hit.getApp(), hit.getUri()), key -> new SlidingWindowCounter(slots.getSlotCount()))
+                .increment(epoch);
+        if (counters.size() > maxTrackedUris) {
+            evictLeastRecent();
+        }
+    }
+
+    public List<ViewStats> getStats(int windowSeconds, List<String> uris) {
+        int windowSlots = slots.windowSlots(windowSeconds);
+        long currentEpoch = slots.currentEpoch();
+
+        List<ViewStats> stats = new ArrayList<>();
+        counters.forEach((key, counter) -> {
+            if (uris != null && !uris.isEmpty() && !uris.contains(key.uri())) {
+                return;
+            }
+            long hits = counter.sum(currentEpoch, windowSlots);
+            if (hits > 0) {
+                stats.add(new ViewStats(key.app(), key.uri(), hits));
+            }
+        });
+        stats.sort(Comparator.comparingLong(ViewStats::getHits).reversed());
+        return stats;
+    }
+
+    private void evictLeastRecent() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = counters.size() - maxTrackedUris;
+            if (excess <= 0) {
+                return;
+            }
+            // evicting a tenth of the capacity at once keeps the sort off the per-hit path
+            int toEvict = Math.max(excess, maxTrackedUris / 10);
+            counters.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().getLastEpoch()))
+                    .limit(toEvict)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(counters::remove);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
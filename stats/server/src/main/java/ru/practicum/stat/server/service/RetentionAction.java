@@ -0,0 +1,6 @@
+package ru.practicum.stat.server.service;
+
+public enum RetentionAction {
+    DETACH,
+    DROP
+}
@@ -1,15 +1,19 @@
 package ru.practicum.stat.server.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.stat.dto.CreateEndpointHitDto;
 import ru.practicum.stat.dto.EndpointHitDto;
 import ru.practicum.stat.server.exception.ConditionException;
+import ru.practicum.stat.server.exception.IngestOverloadException;
 import ru.practicum.stat.server.mapper.EndpointHitMapper;
 import ru.practicum.stat.server.model.EndpointHit;
 import ru.practicum.stat.server.model.ViewStats;
 import ru.practicum.stat.server.repository.EndpointHitRepository;
+import ru.practicum.stat.server.repository.HitRollupRepository;
+import ru.practicum.stat.server.repository.HitSketchRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,23 +24,71 @@ public class StatsService {
 
     private final EndpointHitRepository hitRepository;
 
+    private final HitRollupRepository rollupRepository;
+
+    private final HitSketchRepository sketchRepository;
+
+    private final HitWriter hitWriter;
+
+    private final HitIngestBuffer ingestBuffer;
+
+    private final HitAggregateBuffer aggregateBuffer;
+
+    private final LiveHitCounter liveHitCounter;
+
+    private final TopHitCounter topHitCounter;
+
     private final EndpointHitMapper mapper;
 
-    @Transactional
+    @Value("${stats.ingest.retry-after-seconds}")
+    private int retryAfterSeconds;
+
     public EndpointHitDto saveHit(CreateEndpointHitDto hit) {
         EndpointHit toCreate = mapper.map(hit);
-        EndpointHit created = hitRepository.save(toCreate);
+        if (ingestBuffer.isEnabled()) {
+            if (!ingestBuffer.offer(toCreate)) {
+                throw new IngestOverloadException("Буфер приёма статистики переполнен", retryAfterSeconds);
+            }
+            liveHitCounter.record(toCreate);
+            topHitCounter.record(List.of(toCreate));
+            return mapper.map(toCreate);
+        }
+        EndpointHit created = hitWriter.write(toCreate);
+        aggregateBuffer.add(created);
+        liveHitCounter.record(created);
+        topHitCounter.record(List.of(created));
         return mapper.map(created);
     }
 
+    public void saveHits(List<CreateEndpointHitDto> hits) {
+        List<EndpointHit> toCreate = hits.stream()
+                .map(mapper::map)
+                .toList();
+        hitWriter.writeAll(toCreate);
+        toCreate.forEach(liveHitCounter::record);
+        topHitCounter.record(toCreate);
+    }
+
+    public List<ViewStats> getLiveStats(int windowSeconds, List<String> uris) {
+        return liveHitCounter.getStats(windowSeconds, uris);
+    }
+
+    public List<ViewStats> getTopStats(int windowSeconds, int limit) {
+        return topHitCounter.getTop(windowSeconds, limit);
+    }
+
     @Transactional(readOnly = true)
-    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+    public List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris,
+                                    boolean unique, boolean approximate, Integer limit) {
         if (start.isAfter(end)) {
             throw new ConditionException("Время начала должно быть позже времени окончания");
         }
-        if (uris != null && !uris.isEmpty()) {
-            return hitRepository.findStatsByUris(start, end, uris, unique);
+        if (!unique) {
+            return rollupRepository.findStats(start, end, uris, limit);
+        }
+        if (approximate) {
+            return sketchRepository.findUniqueStats(start, end, uris, limit);
         }
-        return hitRepository.findStats(start, end, unique);
+        return hitRepository.findUniqueStats(start, end, uris, limit);
     }
 }
\ No newline at end of file
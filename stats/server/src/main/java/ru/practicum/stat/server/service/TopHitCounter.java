@@ -0,0 +1,90 @@
+package ru.practicum.stat.server.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.stat.server.model.AppUri;
+import ru.practicum.stat.server.model.EndpointHit;
+import ru.practicum.stat.server.model.ViewStats;
+import ru.practicum.stat.server.sketch.SpaceSaving;
+import ru.practicum.stat.server.sketch.TimeSlots;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class TopHitCounter {
+
+    private final TimeSlots slots;
+
+    private final Slot[] ring;
+
+    @Autowired
+    public TopHitCounter(@Value("${stats.top.slot-seconds}") int slotSeconds,
+                         @Value("${stats.top.slots}") int slotCount,
+                         @Value("${stats.top.capacity}") int capacity) {
+        this.slots = new TimeSlots(slotSeconds, slotCount);
+        this.ring = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            ring[i] = new Slot(capacity);
+        }
+    }
+
+    public void record(List<EndpointHit> hits) {
+        long currentEpoch = slots.currentEpoch();
+        Map<Long, Map<AppUri, Long>> byEpoch = new HashMap<>();
+        for (EndpointHit hit : hits) {
+            long epoch = slots.epochOf(hit.getTimestamp(), currentEpoch);
+            if (slots.isRetained(epoch, currentEpoch)) {
+                byEpoch.computeIfAbsent(epoch, e -> new HashMap<>())
+                        .merge(new AppUri(hit.getApp(), hit.getUri()), 1L, Long::sum);
+            }
+        }
+        byEpoch.forEach((epoch, counts) -> {
+            Slot slot = ring[slots.index(epoch)];
+            synchronized (slot) {
+                if (slot.epoch < epoch) {
+                    slot.summary.clear();
+                    slot.epoch = epoch;
+                }
+                if (slot.epoch == epoch) {
+                    counts.forEach(slot.summary::offer);
+                }
+            }
+        });
+    }
+
+    public List<ViewStats> getTop(int windowSeconds, int limit) {
+        int windowSlots = slots.windowSlots(windowSeconds);
+        long currentEpoch = slots.currentEpoch();
+
+        Map<AppUri, Long> totals = new HashMap<>();
+        for (Slot slot : ring) {
+            Map<AppUri, Long> counts;
+            synchronized (slot) {
+                if (!TimeSlots.inWindow(slot.epoch, currentEpoch, windowSlots)) {
+                    continue;
+                }
+                counts = slot.summary.counts();
+            }
+            counts.forEach((key, hits) -> totals.merge(key, hits, Long::sum));
+        }
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<AppUri, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> new ViewStats(entry.getKey().app(), entry.getKey().uri(), entry.getValue()))
+                .toList();
+    }
+
+    private static final class Slot {
+
+        private final SpaceSaving<AppUri> summary;
+
+        private long epoch = -1;
+
+        private Slot(int capacity) {
+            this.summary = new SpaceSaving<>(capacity);
+        }
+    }
+}
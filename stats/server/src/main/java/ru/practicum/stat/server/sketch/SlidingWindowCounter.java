@@ -0,0 +1,53 @@
+package ru.practicum.stat.server.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SlidingWindowCounter {
+
+    private final LongAdder[] slots;
+
+    private final AtomicLongArray slotEpochs;
+
+    private volatile long lastEpoch;
+
+    public SlidingWindowCounter(int slotCount) {
+        this.slots = new LongAdder[slotCount];
+        this.slotEpochs = new AtomicLongArray(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new LongAdder();
+            slotEpochs.set(i, -1);
+        }
+    }
+
+    public void increment(long epoch) {
+        int index = (int) (epoch % slots.length);
+        long slotEpoch = slotEpochs.get(index);
+        if (slotEpoch > epoch) {
+            return;
+        }
+        if (slotEpoch < epoch && slotEpochs.compareAndSet(index, slotEpoch, epoch)) {
+            // an increment racing with the reset may be lost, which is acceptable for live counters
+            slots[index].reset();
+        }
+        slots[index].increment();
+        if (lastEpoch < epoch) {
+            lastEpoch = epoch;
+        }
+    }
+
+    public long sum(long currentEpoch, int windowSlots) {
+        long total = 0;
+        for (int i = 0; i < slots.length; i++) {
+            long slotEpoch = slotEpochs.get(i);
+            if (TimeSlots.inWindow(slotEpoch, currentEpoch, windowSlots)) {
+                total += slots[i].sum();
+            }
+        }
+        return total;
+    }
+
+    public long getLastEpoch() {
+        return lastEpoch;
+    }
+}
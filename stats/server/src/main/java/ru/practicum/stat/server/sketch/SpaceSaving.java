@@ -0,0 +1,71 @@
+package ru.practicum.stat.server.sketch;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class SpaceSaving<K> {
+
+    private final int capacity;
+
+    private final Map<K, Counter> counters = new HashMap<>();
+
+    private final TreeMap<Long, Set<K>> buckets = new TreeMap<>();
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость должна быть положительной");
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(K key, long increment) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            removeFromBucket(counter.count, key);
+        } else if (counters.size() < capacity) {
+            counter = new Counter(0);
+            counters.put(key, counter);
+        } else {
+            // the newcomer inherits the smallest count, which bounds its overestimation
+            Map.Entry<Long, Set<K>> min = buckets.firstEntry();
+            K evicted = min.getValue().iterator().next();
+            removeFromBucket(min.getKey(), evicted);
+            counters.remove(evicted);
+            counter = new Counter(min.getKey());
+            counters.put(key, counter);
+        }
+        counter.count += increment;
+        buckets.computeIfAbsent(counter.count, count -> new LinkedHashSet<>()).add(key);
+    }
+
+    public Map<K, Long> counts() {
+        Map<K, Long> counts = new HashMap<>(counters.size());
+        counters.forEach((key, counter) -> counts.put(key, counter.count));
+        return counts;
+    }
+
+    public void clear() {
+        counters.clear();
+        buckets.clear();
+    }
+
+    private void removeFromBucket(long count, K key) {
+        Set<K> bucket = buckets.get(count);
+        bucket.remove(key);
+        if (bucket.isEmpty()) {
+            buckets.remove(count);
+        }
+    }
+
+    private static final class Counter {
+
+        private long count;
+
+        private Counter(long count) {
+            this.count = count;
+        }
+    }
+}
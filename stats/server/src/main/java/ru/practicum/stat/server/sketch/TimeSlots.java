@@ -0,0 +1,58 @@
+package ru.practicum.stat.server.sketch;
+
+import ru.practicum.stat.server.exception.ConditionException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+public class TimeSlots {
+
+    private final int slotSeconds;
+
+    private final int slotCount;
+
+    public TimeSlots(int slotSeconds, int slotCount) {
+        if (slotSeconds <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("Размер и число слотов должны быть положительными");
+        }
+        this.slotSeconds = slotSeconds;
+        this.slotCount = slotCount;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public long currentEpoch() {
+        return epoch(LocalDateTime.now());
+    }
+
+    // hits stamped in the future are counted in the current slot rather than ahead of it
+    public long epochOf(LocalDateTime timestamp, long currentEpoch) {
+        return Math.min(epoch(timestamp), currentEpoch);
+    }
+
+    public boolean isRetained(long epoch, long currentEpoch) {
+        return epoch > currentEpoch - slotCount;
+    }
+
+    public int index(long epoch) {
+        return (int) (epoch % slotCount);
+    }
+
+    public int windowSlots(int windowSeconds) {
+        int maxWindow = slotSeconds * slotCount;
+        if (windowSeconds <= 0 || windowSeconds > maxWindow) {
+            throw new ConditionException("Окно должно быть от 1 до " + maxWindow + " секунд");
+        }
+        return (windowSeconds + slotSeconds - 1) / slotSeconds;
+    }
+
+    public static boolean inWindow(long slotEpoch, long currentEpoch, int windowSlots) {
+        return slotEpoch > currentEpoch - windowSlots && slotEpoch <= currentEpoch;
+    }
+
+    private long epoch(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() / slotSeconds;
+    }
+}
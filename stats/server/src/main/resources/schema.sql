@@ -1,9 +1,62 @@
 DROP TABLE IF EXISTS endpoint_hits CASCADE;
 
+DROP TABLE IF EXISTS apps CASCADE;
+
+CREATE TABLE apps (
+                      id SERIAL PRIMARY KEY,
+                      name VARCHAR(255) NOT NULL,
+                      CONSTRAINT UQ_APP_NAME UNIQUE (name)
+);
+
+DROP TABLE IF EXISTS uris CASCADE;
+
+CREATE TABLE uris (
+                      id SERIAL PRIMARY KEY,
+                      name VARCHAR(2000) NOT NULL,
+                      CONSTRAINT UQ_URI_NAME UNIQUE (name)
+);
+
 CREATE TABLE endpoint_hits (
-                               id SERIAL PRIMARY KEY,
-                               app VARCHAR(255) NOT NULL,
-                               uri VARCHAR(2000) NOT NULL,
-                               ip VARCHAR(45) NOT NULL,
-                               timestamp TIMESTAMP NOT NULL
-);
\ No newline at end of file
+                               id SERIAL,
+                               app_id INTEGER NOT NULL REFERENCES apps (id),
+                               uri_id INTEGER NOT NULL REFERENCES uris (id),
+                               ip INET NOT NULL,
+                               timestamp TIMESTAMP NOT NULL,
+                               PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE endpoint_hits_default PARTITION OF endpoint_hits DEFAULT;
+
+CREATE INDEX idx_endpoint_hits_uri_timestamp ON endpoint_hits (uri_id, timestamp);
+
+CREATE INDEX idx_endpoint_hits_timestamp ON endpoint_hits (timestamp);
+
+DROP TABLE IF EXISTS hit_rollups_minute CASCADE;
+
+CREATE TABLE hit_rollups_minute (
+                                    bucket TIMESTAMP NOT NULL,
+                                    app_id INTEGER NOT NULL,
+                                    uri_id INTEGER NOT NULL,
+                                    hits BIGINT NOT NULL,
+                                    PRIMARY KEY (bucket, app_id, uri_id)
+);
+
+DROP TABLE IF EXISTS hit_rollups_hour CASCADE;
+
+CREATE TABLE hit_rollups_hour (
+                                  bucket TIMESTAMP NOT NULL,
+                                  app_id INTEGER NOT NULL,
+                                  uri_id INTEGER NOT NULL,
+                                  hits BIGINT NOT NULL,
+                                  PRIMARY KEY (bucket, app_id, uri_id)
+);
+
+DROP TABLE IF EXISTS hit_sketches_hour CASCADE;
+
+CREATE TABLE hit_sketches_hour (
+                                   bucket TIMESTAMP NOT NULL,
+                                   app_id INTEGER NOT NULL,
+                                   uri_id INTEGER NOT NULL,
+                                   sketch BYTEA NOT NULL,
+                                   PRIMARY KEY (bucket, app_id, uri_id)
+);
@@ -0,0 +1,85 @@
+package ru.practicum.stat.server.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesCardinalityWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add("10.0." + (i >> 8 & 0xff) + "." + (i & 0xff) + "#" + i);
+        }
+
+        assertEquals(100_000, sketch.estimate(), 100_000 * 0.05);
+    }
+
+    @Test
+    void countsDuplicatesOnce() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("192.168.0." + i % 100);
+        }
+
+        assertEquals(100, sketch.estimate(), 5);
+    }
+
+    @Test
+    void survivesSerialization() {
+        HyperLogLog sketch = sketch(10, 0, 5_000);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertArrayEquals(sketch.toBytes(), restored.toBytes());
+    }
+
+    @Test
+    void reduceMatchesSketchBuiltAtLowerPrecision() {
+        HyperLogLog high = sketch(14, 0, 50_000);
+        HyperLogLog low = sketch(10, 0, 50_000);
+
+        assertArrayEquals(low.toBytes(), high.reduce(10).toBytes());
+    }
+
+    @Test
+    void mergeFoldsHigherPrecisionIntoLower() {
+        HyperLogLog low = sketch(10, 0, 20_000);
+        HyperLogLog high = sketch(14, 10_000, 30_000);
+
+        HyperLogLog merged = low.merge(high);
+
+        assertArrayEquals(sketch(10, 0, 30_000).toBytes(), merged.toBytes());
+    }
+
+    @Test
+    void mergeFoldsLowerPrecisionIntoHigher() {
+        HyperLogLog high = sketch(14, 0, 20_000);
+        HyperLogLog low = sketch(10, 10_000, 30_000);
+
+        HyperLogLog merged = high.merge(low);
+
+        assertArrayEquals(sketch(10, 0, 30_000).toBytes(), merged.toBytes());
+        assertEquals(30_000, merged.estimate(), 30_000 * 0.1);
+    }
+
+    @Test
+    void reduceRejectsHigherPrecision() {
+        HyperLogLog sketch = new HyperLogLog(10);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.reduce(12));
+        assertSame(sketch, sketch.reduce(10));
+    }
+
+    private HyperLogLog sketch(int precision, int from, int to) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = from; i < to; i++) {
+            sketch.add("ip-" + i);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.stat.server.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTest {
+
+    @Test
+    void keepsExactCountsWithinCapacity() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(3);
+        sketch.offer("a", 5);
+        sketch.offer("b", 2);
+        sketch.offer("a", 1);
+
+        assertEquals(Map.of("a", 6L, "b", 2L), sketch.counts());
+    }
+
+    @Test
+    void newcomerInheritsSmallestCount() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.offer("a", 10);
+        sketch.offer("b", 3);
+        sketch.offer("c", 1);
+
+        assertEquals(Map.of("a", 10L, "c", 4L), sketch.counts());
+    }
+
+    @Test
+    void overestimatesByAtMostTotalOverCapacity() {
+        int capacity = 20;
+        SpaceSaving<Integer> sketch = new SpaceSaving<>(capacity);
+        Map<Integer, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        long total = 0;
+        for (int i = 0; i < 100_000; i++) {
+            // a skewed stream: a few heavy keys over a long tail
+            int key = random.nextInt(10) < 6 ? random.nextInt(5) : 5 + random.nextInt(1_000);
+            sketch.offer(key, 1);
+            exact.merge(key, 1L, Long::sum);
+            total++;
+        }
+
+        long bound = total / capacity;
+        Map<Integer, Long> counts = sketch.counts();
+        counts.forEach((key, count) -> {
+            long error = count - exact.get(key);
+            assertTrue(error >= 0 && error <= bound, "key " + key + " error " + error);
+        });
+        exact.forEach((key, count) -> {
+            if (count > bound) {
+                assertTrue(counts.containsKey(key), "heavy key " + key + " is not tracked");
+            }
+        });
+    }
+}